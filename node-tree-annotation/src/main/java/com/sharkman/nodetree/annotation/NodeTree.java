@@ -38,4 +38,53 @@ public @interface NodeTree {
      * @return pid 是否为 null
      */
     boolean isPidNull() default false;
+
+    /**
+     * 结果缓存名称，为空时不缓存。缓存以方法、根节点及参数为键，命中时不再执行方法，也不再构造树。
+     * 参数对象只以解析出的根节点参与缓存键
+     *
+     * @return 缓存名称
+     * @since 2.1.0
+     */
+    String cacheName() default "";
+
+    /**
+     * 缓存有效时长，单位秒，等于 0 时不过期，小于 0 时使用全局配置
+     *
+     * @return 有效时长
+     * @since 2.1.0
+     */
+    long cacheTtl() default -1;
+
+    /**
+     * 缓存最多保存的结果数量，超出时淘汰最久未使用的结果，小于 0 时使用全局配置。同名缓存以第一次使用时的方法为准
+     *
+     * @return 最多保存的结果数量
+     * @since 2.1.0
+     */
+    int cacheMaxEntries() default -1;
+
+    /**
+     * 树构造方式，{@link TreeEngine#AUTO} 时使用全局配置
+     *
+     * @return 树构造方式
+     * @since 2.1.0
+     */
+    TreeEngine engine() default TreeEngine.AUTO;
+
+    /**
+     * 按节点数量选择构造方式时，使用并行构造的最少节点数量，等于 0 时不使用，小于 0 时使用全局配置
+     *
+     * @return 并行构造的最少节点数量
+     * @since 2.1.0
+     */
+    int parallelThreshold() default -1;
+
+    /**
+     * 按节点数量选择构造方式时，使用索引构造的最少节点数量，等于 0 时不使用，小于 0 时使用全局配置
+     *
+     * @return 索引构造的最少节点数量
+     * @since 2.1.0
+     */
+    int indexThreshold() default -1;
 }
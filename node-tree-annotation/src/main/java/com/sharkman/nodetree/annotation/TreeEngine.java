@@ -0,0 +1,28 @@
+package com.sharkman.nodetree.annotation;
+
+/**
+ * <p> Description:{@link NodeTree} 方法返回值的树构造方式</p>
+ * <p> CreationTime: 2026/10/18 1:50 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public enum TreeEngine {
+    /**
+     * 按节点数量选择：达到索引阈值时使用 {@link #INDEX}，达到并行阈值时使用 {@link #PARALLEL}，否则使用 {@link #SEQUENTIAL}
+     */
+    AUTO,
+    /**
+     * 在调用线程上顺序构造
+     */
+    SEQUENTIAL,
+    /**
+     * 在线程池中并行构造，节点过少时仍顺序构造
+     */
+    PARALLEL,
+    /**
+     * 先构造数组形式的树索引，再按孩子数量为每个父节点创建孩子集合，集合不会扩容
+     */
+    INDEX
+}
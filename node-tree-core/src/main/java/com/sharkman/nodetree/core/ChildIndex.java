@@ -0,0 +1,116 @@
+package com.sharkman.nodetree.core;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p> Description:孩子节点索引</p>
+ * <p> 以压缩行（CSR）形式保存每个节点的孩子下标：节点 p 的孩子为
+ * children[offsets[p]] 到 children[offsets[p + 1] - 1]，按节点原始顺序排列。</p>
+ * <p> CreationTime: 2026/10/17 5:25 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class ChildIndex {
+    private final int[] offsets;
+    private final int[] children;
+
+    private ChildIndex(int[] offsets, int[] children) {
+        this.offsets = offsets;
+        this.children = children;
+    }
+
+    /**
+     * 根据父节点下标构造
+     *
+     * @param parents 父节点下标，负数表示无父节点
+     * @return 孩子节点索引
+     */
+    static ChildIndex of(int[] parents) {
+        int size = parents.length;
+        int[] offsets = new int[size + 1];
+        for (int parent : parents) {
+            if (parent >= 0) {
+                offsets[parent + 1]++;
+            }
+        }
+        for (int p = 0; p < size; p++) {
+            offsets[p + 1] += offsets[p];
+        }
+        int[] children = new int[offsets[size]];
+        int[] cursor = new int[size];
+        System.arraycopy(offsets, 0, cursor, 0, size);
+        for (int i = 0; i < size; i++) {
+            int parent = parents[i];
+            if (parent >= 0) {
+                children[cursor[parent]++] = i;
+            }
+        }
+        return new ChildIndex(offsets, children);
+    }
+
+    /**
+     * 根据父节点下标并行构造，结果与 {@link #of(int[])} 一致
+     * <p>先按父节点下标所在区间稳定分组，再在各区间内分别计数排序，区间之间互不干扰。</p>
+     *
+     * @param parents 父节点下标，负数表示无父节点
+     * @param pool    线程池
+     * @return 孩子节点索引
+     */
+    static ChildIndex of(int[] parents, ForkJoinPool pool) {
+        int size = parents.length;
+        int ranges = Math.max(1, Math.min(size, pool.getParallelism() << 2));
+        int rangeSize = Math.max(1, (size + ranges - 1) / ranges);
+        int[] rangeOffsets = new int[ranges + 1];
+        int[] byRange = ParallelTasks.group(
+                pool, size, i -> parents[i] < 0 ? -1 : parents[i] / rangeSize, ranges, rangeOffsets);
+        int[] offsets = new int[size + 1];
+        int[] children = new int[byRange.length];
+        ParallelTasks.forEach(pool, ranges, 1, r -> {
+            int from = r * rangeSize;
+            int to = Math.min(size, from + rangeSize);
+            if (from >= to) {
+                return;
+            }
+            int[] cursor = new int[to - from];
+            for (int k = rangeOffsets[r]; k < rangeOffsets[r + 1]; k++) {
+                cursor[parents[byRange[k]] - from]++;
+            }
+            int position = rangeOffsets[r];
+            for (int p = from; p < to; p++) {
+                int count = cursor[p - from];
+                offsets[p] = position;
+                cursor[p - from] = position;
+                position += count;
+            }
+            for (int k = rangeOffsets[r]; k < rangeOffsets[r + 1]; k++) {
+                int i = byRange[k];
+                children[cursor[parents[i] - from]++] = i;
+            }
+        });
+        offsets[size] = children.length;
+        return new ChildIndex(offsets, children);
+    }
+
+    /**
+     * 孩子数量
+     *
+     * @param p 节点下标
+     * @return 孩子数量
+     */
+    int childCount(int p) {
+        return offsets[p + 1] - offsets[p];
+    }
+
+    /**
+     * 第 k 个孩子的下标
+     *
+     * @param p 节点下标
+     * @param k 孩子序号
+     * @return 孩子下标
+     */
+    int child(int p, int k) {
+        return children[offsets[p] + k];
+    }
+}
@@ -0,0 +1,175 @@
+package com.sharkman.nodetree.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p> Description:按父 id 索引的孩子查询</p>
+ * <p> 构造时按父 id 将节点分组，同组节点在数组中连续存放，查询某个 id 的孩子只需一次哈希查找，
+ * 只保存节点、父 id 分组及分组数组，不建立 id 索引，
+ * 适合点击展开时才加载孩子的懒加载树。父 id 不必是已有节点的 id，如以 "0" 查询顶层节点。</p>
+ * <p> 不调用 {@link TreeNodeWrapper#setChildren(List, Object)}，不修改节点对象，
+ * 构造完成后不可修改，可缓存并在多线程间共享。孩子按原始列表顺序排列，父 id 等于自身 id 的节点不作为孩子。</p>
+ * <p> CreationTime: 2026/10/17 7:30 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class ChildrenIndex<T> {
+    private static final int NOT_FOUND = -1;
+
+    /**
+     * 节点，按原始列表顺序保存
+     */
+    private final Object[] nodes;
+    /**
+     * 父 id 到组号的查找函数，见 {@link NodeKeys#groupByPid(int[])}，long 键不装箱，不建立 id 索引
+     */
+    private final ToIntFunction<String> groupOf;
+    /**
+     * 第 g 组的孩子为 members[offsets[g]] 到 members[offsets[g + 1] - 1]
+     */
+    private final int[] offsets;
+    private final int[] members;
+
+    private ChildrenIndex(List<T> list, TreeNodeWrapper<T> wrapper) {
+        this.nodes = list.toArray();
+        int size = nodes.length;
+        int[] groups = new int[size];
+        int groupCount = 0;
+        if (null == wrapper) {
+            this.groupOf = id -> NOT_FOUND;
+            Arrays.fill(groups, NOT_FOUND);
+        } else {
+            NodeKeys<T> keys = NodeKeys.create(wrapper, size);
+            for (int i = 0; i < size; i++) {
+                keys.read(i, node(i));
+            }
+            this.groupOf = keys.groupByPid(groups);
+            for (int group : groups) {
+                groupCount = Math.max(groupCount, group + 1);
+            }
+        }
+        this.offsets = new int[groupCount + 1];
+        for (int group : groups) {
+            if (group >= 0) {
+                offsets[group + 1]++;
+            }
+        }
+        for (int g = 0; g < groupCount; g++) {
+            offsets[g + 1] += offsets[g];
+        }
+        this.members = new int[offsets[groupCount]];
+        int[] cursor = new int[groupCount];
+        System.arraycopy(offsets, 0, cursor, 0, groupCount);
+        for (int i = 0; i < size; i++) {
+            if (groups[i] >= 0) {
+                members[cursor[groups[i]]++] = i;
+            }
+        }
+    }
+
+    /**
+     * 构造孩子索引，包装器根据第一个节点获取
+     *
+     * @param nodes 所有节点数据
+     * @param <T>   节点类型
+     * @return 孩子索引
+     */
+    public static <T> ChildrenIndex<T> of(List<T> nodes) {
+        if (null == nodes || nodes.isEmpty()) {
+            return of(Collections.emptyList(), null);
+        }
+        return of(nodes, TreeNodeProxy.createNodeWrapper(nodes.get(0)));
+    }
+
+    /**
+     * 构造孩子索引
+     *
+     * @param nodes   所有节点数据
+     * @param wrapper 节点包装器，只用于读取 id 与父 id
+     * @param <T>     节点类型
+     * @return 孩子索引
+     */
+    public static <T> ChildrenIndex<T> of(List<T> nodes, TreeNodeWrapper<T> wrapper) {
+        return new ChildrenIndex<>(null == nodes ? Collections.emptyList() : nodes, wrapper);
+    }
+
+    /**
+     * 父 id 为指定值的节点，返回只读视图，不复制
+     *
+     * @param id 父节点 id，可为 null
+     * @return 孩子节点，没有时返回空集合
+     */
+    public List<T> childrenOf(String id) {
+        int group = groupOf(id);
+        return group < 0 ? Collections.emptyList() : new GroupView(group);
+    }
+
+    /**
+     * 是否有孩子
+     *
+     * @param id 父节点 id，可为 null
+     * @return 是否有孩子
+     */
+    public boolean hasChildren(String id) {
+        return groupOf(id) >= 0;
+    }
+
+    /**
+     * 孩子数量
+     *
+     * @param id 父节点 id，可为 null
+     * @return 孩子数量
+     */
+    public int childCount(String id) {
+        int group = groupOf(id);
+        return group < 0 ? 0 : offsets[group + 1] - offsets[group];
+    }
+
+    /**
+     * 节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    private int groupOf(String id) {
+        return groupOf.applyAsInt(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T node(int i) {
+        return (T) nodes[i];
+    }
+
+    private final class GroupView extends AbstractList<T> implements RandomAccess {
+        private final int from;
+        private final int size;
+
+        GroupView(int group) {
+            this.from = offsets[group];
+            this.size = offsets[group + 1] - from;
+        }
+
+        @Override
+        public T get(int k) {
+            if (k < 0 || k >= size) {
+                throw new IndexOutOfBoundsException("孩子序号越界：" + k);
+            }
+            return node(members[from + k]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.sharkman.nodetree.core;
+
+/**
+ * <p> Description:编译期生成的树节点包装器</p>
+ * <p> 由 node-tree-processor 为使用 {@link com.sharkman.nodetree.annotation.NodeID} 等注解的类生成，
+ * 通过 {@link java.util.ServiceLoader} 发现，{@link TreeNodeWrapperRegistry} 优先使用，无需反射。</p>
+ * <p> CreationTime: 2026/10/17 11:20 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public interface GeneratedTreeNodeWrapper<T> extends TreeNodeWrapper<T> {
+    /**
+     * 获取包装的节点类型
+     *
+     * @return 节点类型
+     */
+    Class<T> getNodeType();
+}
@@ -0,0 +1,289 @@
+package com.sharkman.nodetree.core;
+
+import java.util.Objects;
+
+/**
+ * <p> Description:不可修改的哈希前缀树映射（HAMT）</p>
+ * <p> 按哈希值每 5 位分一层，每层以位图标记存在的分支，数组只存放存在的分支。
+ * 写入与删除返回新映射，只复制根到目标位置的路径（至多 7 层），其余分支与旧映射共享。
+ * 哈希值完全相同的键存放在同一个冲突节点中。键与值都可以为 null。</p>
+ * <p> CreationTime: 2026/10/17 11:10 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class HashTrieMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final HashTrieMap<?, ?> EMPTY = new HashTrieMap<>(new Branch(0, new Object[0]), 0);
+
+    private final Branch root;
+    private final int size;
+
+    private HashTrieMap(Branch root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> HashTrieMap<K, V> empty() {
+        return (HashTrieMap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 读取值
+     *
+     * @param key 键
+     * @return 值，不存在时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        Entry entry = find(key);
+        return null == entry ? null : (V) entry.value;
+    }
+
+    boolean containsKey(Object key) {
+        return null != find(key);
+    }
+
+    /**
+     * 写入，键已存在时替换值
+     *
+     * @param key   键
+     * @param value 值
+     * @return 新映射，值未改变时返回自身
+     */
+    HashTrieMap<K, V> put(K key, V value) {
+        Entry entry = new Entry(hash(key), key, value);
+        boolean[] added = new boolean[1];
+        Branch newRoot = root.put(0, entry, added);
+        return newRoot == root ? this : new HashTrieMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * 删除
+     *
+     * @param key 键
+     * @return 新映射，键不存在时返回自身
+     */
+    HashTrieMap<K, V> remove(Object key) {
+        Object newRoot = root.remove(0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+        if (size == 1) {
+            return empty();
+        }
+        // 根节点只剩一个条目时仍保留为分支
+        Branch branch = newRoot instanceof Branch ? (Branch) newRoot : Branch.of(0, newRoot);
+        return new HashTrieMap<>(branch, size - 1);
+    }
+
+    private Entry find(Object key) {
+        int hash = hash(key);
+        Object current = root;
+        for (int shift = 0; ; shift += BITS) {
+            if (current instanceof Branch) {
+                Branch branch = (Branch) current;
+                int bit = 1 << ((hash >>> shift) & MASK);
+                if ((branch.bitmap & bit) == 0) {
+                    return null;
+                }
+                current = branch.slots[Integer.bitCount(branch.bitmap & (bit - 1))];
+            } else if (current instanceof Entry) {
+                Entry entry = (Entry) current;
+                return entry.matches(hash, key) ? entry : null;
+            } else {
+                return ((Collision) current).find(hash, key);
+            }
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private static int hashOf(Object leaf) {
+        return leaf instanceof Entry ? ((Entry) leaf).hash : ((Collision) leaf).hash;
+    }
+
+    /**
+     * 合并哈希值不同位置相同的两个叶子（条目或冲突节点）
+     */
+    private static Object merge(int shift, Object a, Entry b) {
+        int hashA = hashOf(a);
+        if (hashA == b.hash) {
+            return a instanceof Collision ? ((Collision) a).put(b, new boolean[1])
+                    : new Collision(b.hash, new Entry[]{(Entry) a, b});
+        }
+        int fragmentA = (hashA >>> shift) & MASK;
+        int fragmentB = (b.hash >>> shift) & MASK;
+        if (fragmentA == fragmentB) {
+            return new Branch(1 << fragmentA, new Object[]{merge(shift + BITS, a, b)});
+        }
+        Object[] slots = fragmentA < fragmentB ? new Object[]{a, b} : new Object[]{b, a};
+        return new Branch((1 << fragmentA) | (1 << fragmentB), slots);
+    }
+
+    private static final class Entry {
+        private final int hash;
+        private final Object key;
+        private final Object value;
+
+        Entry(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        boolean matches(int hash, Object key) {
+            return this.hash == hash && Objects.equals(this.key, key);
+        }
+    }
+
+    private static final class Collision {
+        private final int hash;
+        private final Entry[] entries;
+
+        Collision(int hash, Entry[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        Entry find(int hash, Object key) {
+            for (Entry entry : entries) {
+                if (entry.matches(hash, key)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        Collision put(Entry entry, boolean[] added) {
+            for (int k = 0; k < entries.length; k++) {
+                if (entries[k].matches(entry.hash, entry.key)) {
+                    if (entries[k].value == entry.value) {
+                        return this;
+                    }
+                    Entry[] copy = entries.clone();
+                    copy[k] = entry;
+                    return new Collision(hash, copy);
+                }
+            }
+            Entry[] copy = new Entry[entries.length + 1];
+            System.arraycopy(entries, 0, copy, 0, entries.length);
+            copy[entries.length] = entry;
+            added[0] = true;
+            return new Collision(hash, copy);
+        }
+
+        /**
+         * @return 删除后的叶子，只剩一个条目时返回条目
+         */
+        Object remove(Object key) {
+            for (int k = 0; k < entries.length; k++) {
+                if (entries[k].matches(hash, key)) {
+                    if (entries.length == 2) {
+                        return entries[1 - k];
+                    }
+                    Entry[] copy = new Entry[entries.length - 1];
+                    System.arraycopy(entries, 0, copy, 0, k);
+                    System.arraycopy(entries, k + 1, copy, k, entries.length - k - 1);
+                    return new Collision(hash, copy);
+                }
+            }
+            return this;
+        }
+    }
+
+    private static final class Branch {
+        private final int bitmap;
+        private final Object[] slots;
+
+        Branch(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        static Branch of(int shift, Object leaf) {
+            return new Branch(1 << ((hashOf(leaf) >>> shift) & MASK), new Object[]{leaf});
+        }
+
+        Branch put(int shift, Entry entry, boolean[] added) {
+            int bit = 1 << ((entry.hash >>> shift) & MASK);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                copy[index] = entry;
+                System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+                added[0] = true;
+                return new Branch(bitmap | bit, copy);
+            }
+            Object slot = slots[index];
+            Object replacement;
+            if (slot instanceof Branch) {
+                replacement = ((Branch) slot).put(shift + BITS, entry, added);
+            } else if (slot instanceof Entry && ((Entry) slot).matches(entry.hash, entry.key)) {
+                replacement = ((Entry) slot).value == entry.value ? slot : entry;
+            } else if (slot instanceof Collision && ((Collision) slot).hash == entry.hash) {
+                replacement = ((Collision) slot).put(entry, added);
+            } else {
+                replacement = merge(shift + BITS, slot, entry);
+                added[0] = true;
+            }
+            return replacement == slot ? this : with(index, replacement);
+        }
+
+        /**
+         * @return 删除后的节点：未改变时返回自身，为空时返回 null，只剩一个叶子时返回该叶子以便上层内联
+         */
+        Object remove(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object slot = slots[index];
+            Object replacement;
+            if (slot instanceof Branch) {
+                replacement = ((Branch) slot).remove(shift + BITS, hash, key);
+            } else if (slot instanceof Entry) {
+                replacement = ((Entry) slot).matches(hash, key) ? null : slot;
+            } else {
+                replacement = ((Collision) slot).remove(key);
+            }
+            if (replacement == slot) {
+                return this;
+            }
+            if (null != replacement) {
+                if (slots.length == 1 && !(replacement instanceof Branch)) {
+                    return replacement;
+                }
+                return with(index, replacement);
+            }
+            if (slots.length == 1) {
+                return null;
+            }
+            if (slots.length == 2 && !(slots[1 - index] instanceof Branch)) {
+                return slots[1 - index];
+            }
+            Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, index);
+            System.arraycopy(slots, index + 1, copy, index, slots.length - index - 1);
+            return new Branch(bitmap & ~bit, copy);
+        }
+
+        private Branch with(int index, Object slot) {
+            Object[] copy = slots.clone();
+            copy[index] = slot;
+            return new Branch(bitmap, copy);
+        }
+    }
+}
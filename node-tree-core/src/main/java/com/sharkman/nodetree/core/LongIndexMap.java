@@ -0,0 +1,116 @@
+package com.sharkman.nodetree.core;
+
+import java.util.Arrays;
+
+/**
+ * <p> Description:long 到节点下标的开放寻址映射</p>
+ * <p> 线性探测，键与值分别存放在 long、int 数组中，读写都不装箱。值必须为非负数。</p>
+ * <p> CreationTime: 2026/10/17 3:20 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class LongIndexMap {
+    /**
+     * 未找到
+     */
+    static final int NOT_FOUND = -1;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int shift;
+    private int size;
+    private int threshold;
+
+    /**
+     * 构造映射
+     *
+     * @param expectedSize 预计元素数量
+     */
+    LongIndexMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        // 装载因子 0.5
+        while (capacity < expectedSize * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        Arrays.fill(values, NOT_FOUND);
+        this.mask = capacity - 1;
+        this.shift = Long.numberOfLeadingZeros(capacity - 1L);
+        this.threshold = capacity >>> 1;
+    }
+
+    private int slot(long key) {
+        return (int) ((key * GOLDEN_RATIO) >>> shift) & mask;
+    }
+
+    /**
+     * 写入映射，键已存在时覆盖
+     *
+     * @param key   键
+     * @param value 值，非负数
+     */
+    void put(long key, int value) {
+        int i = slot(key);
+        while (values[i] != NOT_FOUND) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold) {
+            rehash();
+        }
+    }
+
+    /**
+     * 读取映射
+     *
+     * @param key 键
+     * @return 值，未找到返回 {@link #NOT_FOUND}
+     */
+    int get(long key) {
+        int i = slot(key);
+        int value;
+        while ((value = values[i]) != NOT_FOUND) {
+            if (keys[i] == key) {
+                return value;
+            }
+            i = (i + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != NOT_FOUND) {
+                int j = slot(oldKeys[i]);
+                while (values[j] != NOT_FOUND) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
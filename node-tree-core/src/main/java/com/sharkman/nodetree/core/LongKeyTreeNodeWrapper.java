@@ -0,0 +1,52 @@
+package com.sharkman.nodetree.core;
+
+/**
+ * <p> Description:整数 id 的树节点包装器</p>
+ * <p> 节点 id 与父 id 为 long、Long、int、Integer 时，构造树直接以 long 作为键，
+ * 不再为每个节点生成字符串。数值相等与 {@link #getId(Object)} 返回的字符串相等一致。</p>
+ * <p> CreationTime: 2026/10/17 3:05 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public interface LongKeyTreeNodeWrapper<T> extends TreeNodeWrapper<T> {
+    /**
+     * id 与父 id 是否都可以按 long 读取，为 false 时按字符串处理
+     *
+     * @return 是否使用 long 键
+     */
+    boolean isLongKey();
+
+    /**
+     * 节点 id 是否不为 null
+     *
+     * @param targetObj 目标对象
+     * @return 是否有 id
+     */
+    boolean hasId(T targetObj);
+
+    /**
+     * 获取 long 类型的节点 id，调用前需确认 {@link #hasId(Object)}
+     *
+     * @param targetObj 目标对象
+     * @return 节点 id
+     */
+    long getLongId(T targetObj);
+
+    /**
+     * 父节点 id 是否不为 null
+     *
+     * @param targetObj 目标对象
+     * @return 是否有父 id
+     */
+    boolean hasPId(T targetObj);
+
+    /**
+     * 获取 long 类型的父节点 id，调用前需确认 {@link #hasPId(Object)}
+     *
+     * @param targetObj 目标对象
+     * @return 父节点 id
+     */
+    long getLongPId(T targetObj);
+}
@@ -0,0 +1,232 @@
+package com.sharkman.nodetree.core;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p> Description:long 形式的节点键</p>
+ * <p> id 与父 id 以 long 存放，索引使用 {@link LongIndexMap}，不生成字符串也不装箱。
+ * 字符串参数只有是 long 的规范写法时才能匹配，与按字符串比较的结果一致。</p>
+ * <p> CreationTime: 2026/10/17 3:55 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class LongNodeKeys<T> extends NodeKeys<T> {
+    /**
+     * long 的最大值与最小值去掉负号后的数字
+     */
+    private static final String MAX_DIGITS = "9223372036854775807";
+    private static final String MIN_DIGITS = "9223372036854775808";
+
+    private final LongKeyTreeNodeWrapper<T> wrapper;
+    private final long[] ids;
+    private final long[] pids;
+    private final boolean[] hasId;
+    private final boolean[] hasPid;
+    private LongIndexMap[] index;
+    private int bits;
+    /**
+     * id 为 null 的节点下标，与 HashMap 的 null 键行为一致
+     */
+    private int nullIdIndex = NOT_FOUND;
+
+    LongNodeKeys(LongKeyTreeNodeWrapper<T> wrapper, int size) {
+        this.wrapper = wrapper;
+        this.ids = new long[size];
+        this.pids = new long[size];
+        this.hasId = new boolean[size];
+        this.hasPid = new boolean[size];
+    }
+
+    @Override
+    void partition(int bits) {
+        this.bits = bits;
+        int expected = ids.length >> bits;
+        this.index = new LongIndexMap[1 << bits];
+        for (int p = 0; p < index.length; p++) {
+            index[p] = new LongIndexMap(expected);
+        }
+    }
+
+    /**
+     * id 为 null 的节点归入 0 号分区
+     */
+    @Override
+    int partitionOfId(int i) {
+        return hasId[i] ? partitionOf(ids[i]) : 0;
+    }
+
+    private int partitionOf(long key) {
+        return 0 == bits ? 0 : partitionOf(Long.hashCode(key), bits);
+    }
+
+    private LongIndexMap mapOf(long key) {
+        return index[partitionOf(key)];
+    }
+
+    @Override
+    void read(int i, T node) {
+        if (wrapper.hasId(node)) {
+            hasId[i] = true;
+            ids[i] = wrapper.getLongId(node);
+        }
+        if (wrapper.hasPId(node)) {
+            hasPid[i] = true;
+            pids[i] = wrapper.getLongPId(node);
+        }
+    }
+
+    @Override
+    void index(int i) {
+        if (hasId[i]) {
+            mapOf(ids[i]).put(ids[i], i);
+        } else {
+            nullIdIndex = i;
+        }
+    }
+
+    @Override
+    int parentIndex(int i) {
+        return hasPid[i] ? mapOf(pids[i]).get(pids[i]) : nullIdIndex;
+    }
+
+    @Override
+    int indexOf(String id) {
+        if (null == id) {
+            return nullIdIndex;
+        }
+        if (!isKey(id)) {
+            return NOT_FOUND;
+        }
+        long key = toKey(id);
+        return mapOf(key).get(key);
+    }
+
+    @Override
+    IntPredicate pidMatcher(String pid) {
+        if (null == pid) {
+            return i -> !hasPid[i];
+        }
+        if (!isKey(pid)) {
+            return i -> false;
+        }
+        long value = toKey(pid);
+        return i -> hasPid[i] && pids[i] == value;
+    }
+
+    @Override
+    IntUnaryOperator pidLookup(List<String> pids) {
+        LongIndexMap positions = new LongIndexMap(pids.size());
+        int nullPosition = NOT_FOUND;
+        for (int k = 0; k < pids.size(); k++) {
+            String pid = pids.get(k);
+            if (null == pid) {
+                nullPosition = k;
+                continue;
+            }
+            if (isKey(pid)) {
+                positions.put(toKey(pid), k);
+            }
+        }
+        int nullPid = nullPosition;
+        return i -> hasPid[i] ? positions.get(this.pids[i]) : nullPid;
+    }
+
+    @Override
+    ToIntFunction<String> groupByPid(int[] groups) {
+        LongIndexMap groupOf = new LongIndexMap(16);
+        int nullGroup = NOT_FOUND;
+        int count = 0;
+        for (int i = 0; i < pids.length; i++) {
+            if (hasId[i] == hasPid[i] && (!hasId[i] || ids[i] == pids[i])) {
+                groups[i] = NOT_FOUND;
+                continue;
+            }
+            int group;
+            if (!hasPid[i]) {
+                if (nullGroup == NOT_FOUND) {
+                    nullGroup = count++;
+                }
+                group = nullGroup;
+            } else {
+                group = groupOf.get(pids[i]);
+                if (group == NOT_FOUND) {
+                    group = count++;
+                    groupOf.put(pids[i], group);
+                }
+            }
+            groups[i] = group;
+        }
+        int nullPid = nullGroup;
+        return pid -> {
+            if (null == pid) {
+                return nullPid;
+            }
+            return isKey(pid) ? groupOf.get(toKey(pid)) : NOT_FOUND;
+        };
+    }
+
+    @Override
+    String id(int i) {
+        return hasId[i] ? Long.toString(ids[i]) : null;
+    }
+
+    /**
+     * 是否为 long 的规范写法，即与 {@link Long#toString(long)} 的结果相同：可选的负号后接数字，
+     * 不含 "+"、多余的前导 0 及 "-0"，且不超出 long 的范围。如 "007"、"+7" 与 "7" 按字符串比较并不相等，不能匹配。
+     * <p>逐个字符检查，不生成字符串，也不抛出异常。</p>
+     *
+     * @param key 字符串键，不可为 null
+     * @return 是否为规范写法
+     */
+    static boolean isKey(String key) {
+        int length = key.length();
+        int start = length > 0 && key.charAt(0) == '-' ? 1 : 0;
+        int digits = length - start;
+        if (digits == 0 || digits > MAX_DIGITS.length()) {
+            return false;
+        }
+        if (key.charAt(start) == '0' && (digits > 1 || start == 1)) {
+            return false;
+        }
+        for (int i = start; i < length; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        if (digits < MAX_DIGITS.length()) {
+            return true;
+        }
+        // 位数与上限相同时逐位比较，负数的上限比正数大 1
+        String limit = start == 1 ? MIN_DIGITS : MAX_DIGITS;
+        for (int i = 0; i < digits; i++) {
+            char c = key.charAt(start + i);
+            char bound = limit.charAt(i);
+            if (c != bound) {
+                return c < bound;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 把规范写法转换为 long，须先以 {@link #isKey(String)} 检查
+     *
+     * @param key 规范写法的字符串键
+     * @return long 键
+     */
+    static long toKey(String key) {
+        boolean negative = key.charAt(0) == '-';
+        // 以负数累加，Long.MIN_VALUE 不会溢出
+        long value = 0;
+        for (int i = negative ? 1 : 0; i < key.length(); i++) {
+            value = value * 10 - (key.charAt(i) - '0');
+        }
+        return negative ? value : -value;
+    }
+}
@@ -0,0 +1,301 @@
+package com.sharkman.nodetree.core;
+
+import java.util.*;
+
+/**
+ * <p> Description:可修改的树</p>
+ * <p> 由 {@link TreeBuilder#buildMutable()} 构造，保留 id 索引，增删、移动节点时只调整相关节点的孩子集合，
+ * 不重新构造整棵树。插入与删除的开销与孩子数量相关，移动时的环检查与深度相关。</p>
+ * <p> 树中的父子关系以本对象记录的父 id 为准：{@link #insert(Object)} 与 {@link #updatePid(String)} 读取节点的父 id 属性，
+ * {@link #move(String, String)} 只调整树结构，不修改节点对象的父 id 属性。
+ * 父节点不存在的节点作为根节点，父节点插入后自动挂到父节点下。</p>
+ * <p> 不是线程安全的，多线程读写时需自行同步。</p>
+ * <p> CreationTime: 2026/10/17 9:40 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class MutableTree<T> {
+    private NodeKeyReader<T> keys;
+    /**
+     * id 到节点的映射
+     */
+    private final Map<Object, T> nodes;
+    /**
+     * id 到父 id 的映射
+     */
+    private final Map<Object, Object> pids = new HashMap<>();
+    /**
+     * 根节点，按成为根节点的顺序保存
+     */
+    private final Map<Object, T> roots = new LinkedHashMap<>();
+    /**
+     * 等待父节点的节点，以父 id 分组
+     */
+    private final Map<Object, List<T>> orphans = new HashMap<>();
+
+    MutableTree(NodeKeyReader<T> keys, Map<Object, T> nodes) {
+        this.keys = keys;
+        this.nodes = nodes;
+        for (Map.Entry<Object, T> entry : nodes.entrySet()) {
+            pids.put(entry.getKey(), keys.pid(entry.getValue()));
+        }
+    }
+
+    /**
+     * 由节点列表构造
+     *
+     * @param nodes 所有节点数据
+     * @param <T>   节点类型
+     * @return 可修改的树
+     */
+    public static <T> MutableTree<T> of(List<T> nodes) {
+        TreeBuilder<T> builder = TreeBuilder.create();
+        if (null != nodes) {
+            builder.acceptAll(nodes);
+        }
+        return builder.buildMutable();
+    }
+
+    void addRoot(T node) {
+        roots.put(keys.id(node), node);
+    }
+
+    void park(Object pid, T node) {
+        orphans.computeIfAbsent(pid, k -> new ArrayList<>(1)).add(node);
+    }
+
+    /**
+     * 节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * 是否包含节点
+     *
+     * @param id 节点 id
+     * @return 是否包含
+     */
+    public boolean contains(String id) {
+        return null != get(id);
+    }
+
+    /**
+     * 根据 id 获取节点
+     *
+     * @param id 节点 id
+     * @return 节点，不存在时返回 null
+     */
+    public T get(String id) {
+        return null == keys ? null : nodes.get(keys.keyOf(id));
+    }
+
+    /**
+     * 当前的根节点，返回副本
+     *
+     * @return 根节点
+     */
+    public List<T> roots() {
+        return new ArrayList<>(roots.values());
+    }
+
+    /**
+     * 插入节点，父节点存在时追加到父节点孩子集合末尾，等待该节点的孩子一并挂上
+     *
+     * @param node 节点
+     * @return this
+     * @throws IllegalArgumentException 节点为空或 id 已存在
+     */
+    public MutableTree<T> insert(T node) {
+        if (null == node) {
+            throw new IllegalArgumentException("节点不能为空");
+        }
+        if (null == keys) {
+            keys = new NodeKeyReader<>(TreeNodeWrapperRegistry.getWrapper(node));
+        }
+        Object id = keys.id(node);
+        if (nodes.containsKey(id)) {
+            throw new IllegalArgumentException("插入节点失败！id为 " + id + " 的节点已存在！");
+        }
+        nodes.put(id, node);
+        List<T> waiting = orphans.remove(id);
+        if (null != waiting) {
+            for (T child : waiting) {
+                roots.remove(keys.id(child));
+                TreeCoreConstructor.addChild(node, child, keys.wrapper());
+            }
+        }
+        attach(id, node, keys.pid(node));
+        return this;
+    }
+
+    /**
+     * 删除节点
+     * <p>级联删除时，整棵子树从树中移除，子树内部的孩子集合保持不变；
+     * 否则孩子从被删除节点的孩子集合中移出，成为根节点，同 id 的节点再次插入时重新挂上。</p>
+     *
+     * @param id      节点 id
+     * @param cascade 是否删除子孙节点
+     * @return 被删除的节点，不存在时返回 null
+     */
+    public T remove(String id, boolean cascade) {
+        T node = get(id);
+        if (null == node) {
+            return null;
+        }
+        Object key = keys.id(node);
+        detach(key, node);
+        nodes.remove(key);
+        pids.remove(key);
+        List<T> children = keys.wrapper().getChildren(node);
+        if (null == children) {
+            return node;
+        }
+        if (cascade) {
+            Deque<T> queue = new ArrayDeque<>(children);
+            while (!queue.isEmpty()) {
+                T current = queue.poll();
+                Object currentKey = keys.id(current);
+                // 只移除仍属于这棵树的节点
+                if (nodes.get(currentKey) == current) {
+                    nodes.remove(currentKey);
+                    pids.remove(currentKey);
+                    List<T> grandChildren = keys.wrapper().getChildren(current);
+                    if (null != grandChildren) {
+                        queue.addAll(grandChildren);
+                    }
+                }
+            }
+        } else {
+            for (T child : children) {
+                Object childKey = keys.id(child);
+                if (nodes.get(childKey) == child) {
+                    roots.put(childKey, child);
+                    park(key, child);
+                }
+            }
+            children.clear();
+        }
+        return node;
+    }
+
+    /**
+     * 移动节点到新的父节点下，追加到孩子集合末尾，不修改节点对象的父 id 属性
+     *
+     * @param id     节点 id
+     * @param newPid 新的父 id，父节点不存在时节点成为根节点
+     * @return this
+     * @throws IllegalArgumentException 节点不存在
+     * @throws IllegalStateException    新的父节点是节点自身的后代
+     */
+    public MutableTree<T> move(String id, String newPid) {
+        T node = get(id);
+        if (null == node) {
+            throw new IllegalArgumentException("移动节点失败！未找到id为 " + id + " 的节点！");
+        }
+        moveTo(keys.id(node), node, keys.keyOf(newPid));
+        return this;
+    }
+
+    /**
+     * 节点的父 id 属性修改后，重新读取父 id 并移动节点
+     *
+     * @param id 节点 id
+     * @return this
+     * @throws IllegalArgumentException 节点不存在
+     * @throws IllegalStateException    新的父节点是节点自身的后代
+     */
+    public MutableTree<T> updatePid(String id) {
+        T node = get(id);
+        if (null == node) {
+            throw new IllegalArgumentException("更新节点失败！未找到id为 " + id + " 的节点！");
+        }
+        moveTo(keys.id(node), node, keys.pid(node));
+        return this;
+    }
+
+    private void moveTo(Object key, T node, Object newPid) {
+        checkCycle(key, node, newPid);
+        detach(key, node);
+        attach(key, node, newPid);
+    }
+
+    /**
+     * 自新的父节点沿父 id 向上查找，遇到节点自身说明会成环
+     */
+    private void checkCycle(Object key, T node, Object newPid) {
+        Object current = newPid;
+        // 数据本身成环时最多走 size 步
+        for (int steps = 0; steps <= nodes.size(); steps++) {
+            T ancestor = nodes.get(current);
+            if (null == ancestor) {
+                return;
+            }
+            if (ancestor == node) {
+                if (Objects.equals(current, newPid) && Objects.equals(key, newPid)) {
+                    // 父 id 为自身，与构造树一致，作为根节点
+                    return;
+                }
+                throw new IllegalStateException("移动节点失败！新的父节点是节点 " + key + " 自身的后代！");
+            }
+            Object next = pids.get(current);
+            if (Objects.equals(next, current)) {
+                return;
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * 挂到父节点下，父节点不存在或为自身时作为根节点
+     */
+    private void attach(Object key, T node, Object pid) {
+        pids.put(key, pid);
+        T parent = nodes.get(pid);
+        if (null != parent && parent != node) {
+            TreeCoreConstructor.addChild(parent, node, keys.wrapper());
+            return;
+        }
+        roots.put(key, node);
+        if (null == parent) {
+            park(pid, node);
+        }
+    }
+
+    /**
+     * 从父节点的孩子集合或根节点中移出
+     */
+    private void detach(Object key, T node) {
+        Object pid = pids.get(key);
+        T parent = nodes.get(pid);
+        if (null != parent && parent != node) {
+            List<T> siblings = keys.wrapper().getChildren(parent);
+            if (null != siblings) {
+                removeIdentity(siblings, node);
+            }
+            return;
+        }
+        roots.remove(key);
+        List<T> waiting = orphans.get(pid);
+        if (null != waiting) {
+            removeIdentity(waiting, node);
+            if (waiting.isEmpty()) {
+                orphans.remove(pid);
+            }
+        }
+    }
+
+    private static <T> void removeIdentity(List<T> list, T node) {
+        for (Iterator<T> iterator = list.iterator(); iterator.hasNext(); ) {
+            if (iterator.next() == node) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.sharkman.nodetree.core;
+
+/**
+ * <p> Description:节点键读取器</p>
+ * <p> 以对象形式读取节点的 id 与父 id，用作哈希表的键：整数 id 的包装器读取为 Long，不生成字符串，
+ * 其余读取为 String。供逐个接收节点、无法预知节点数量的场景使用。</p>
+ * <p> CreationTime: 2026/10/17 9:20 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class NodeKeyReader<T> {
+    /**
+     * 无法与任何节点匹配的键
+     */
+    private static final Object UNMATCHED = new Object();
+
+    private final TreeNodeWrapper<T> wrapper;
+    private final LongKeyTreeNodeWrapper<T> longKeyWrapper;
+
+    NodeKeyReader(TreeNodeWrapper<T> wrapper) {
+        this.wrapper = wrapper;
+        if (wrapper instanceof LongKeyTreeNodeWrapper && ((LongKeyTreeNodeWrapper<T>) wrapper).isLongKey()) {
+            this.longKeyWrapper = (LongKeyTreeNodeWrapper<T>) wrapper;
+        } else {
+            this.longKeyWrapper = null;
+        }
+    }
+
+    TreeNodeWrapper<T> wrapper() {
+        return wrapper;
+    }
+
+    /**
+     * 读取 id 键
+     *
+     * @param node 节点
+     * @return id 键，可为 null
+     */
+    Object id(T node) {
+        if (null != longKeyWrapper) {
+            return longKeyWrapper.hasId(node) ? longKeyWrapper.getLongId(node) : null;
+        }
+        return wrapper.getId(node);
+    }
+
+    /**
+     * 读取父 id 键
+     *
+     * @param node 节点
+     * @return 父 id 键，可为 null
+     */
+    Object pid(T node) {
+        if (null != longKeyWrapper) {
+            return longKeyWrapper.hasPId(node) ? longKeyWrapper.getLongPId(node) : null;
+        }
+        return wrapper.getPId(node);
+    }
+
+    /**
+     * 字符串参数转换为键，long 键只接受规范写法，无法解析时返回不与任何节点匹配的键
+     *
+     * @param id 字符串 id，可为 null
+     * @return 键
+     */
+    Object keyOf(String id) {
+        if (null == id || null == longKeyWrapper) {
+            return id;
+        }
+        return LongNodeKeys.isKey(id) ? (Object) LongNodeKeys.toKey(id) : UNMATCHED;
+    }
+}
@@ -0,0 +1,136 @@
+package com.sharkman.nodetree.core;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p> Description:节点键</p>
+ * <p> 按节点下标保存每个节点的 id 与父 id，并维护 id 到下标的索引。
+ * 包装器支持 long 键时使用 {@link LongNodeKeys}，否则使用 {@link StringNodeKeys}。
+ * 索引可按 id 的哈希拆分为多个分区，各分区互不相交，可由不同线程分别写入。</p>
+ * <p> CreationTime: 2026/10/17 3:40 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+abstract class NodeKeys<T> {
+    /**
+     * 未找到
+     */
+    static final int NOT_FOUND = -1;
+
+    /**
+     * 根据包装器选择键的存储方式
+     *
+     * @param wrapper 节点包装器
+     * @param size    节点数量
+     * @param <T>     节点类型
+     * @return 节点键
+     */
+    static <T> NodeKeys<T> create(TreeNodeWrapper<T> wrapper, int size) {
+        if (wrapper instanceof LongKeyTreeNodeWrapper && ((LongKeyTreeNodeWrapper<T>) wrapper).isLongKey()) {
+            return new LongNodeKeys<>((LongKeyTreeNodeWrapper<T>) wrapper, size);
+        }
+        return new StringNodeKeys<>(wrapper, size);
+    }
+
+    /**
+     * 读取节点的 id 与父 id
+     *
+     * @param i    节点下标
+     * @param node 节点
+     */
+    abstract void read(int i, T node);
+
+    /**
+     * 创建索引分区，须在 {@link #index(int)} 之前调用
+     *
+     * @param bits 分区数量为 2 的 bits 次方，为 0 时不分区
+     */
+    abstract void partition(int bits);
+
+    /**
+     * 节点 id 所在的索引分区
+     *
+     * @param i 节点下标
+     * @return 分区号
+     */
+    abstract int partitionOfId(int i);
+
+    /**
+     * 建立 id 到下标的索引，id 重复时以后写入的为准
+     * <p>同一分区只能由一个线程按下标递增顺序写入。</p>
+     *
+     * @param i 节点下标
+     */
+    abstract void index(int i);
+
+    /**
+     * 查找父 id 对应的节点下标
+     *
+     * @param i 节点下标
+     * @return 父节点下标，未找到返回 {@link #NOT_FOUND}
+     */
+    abstract int parentIndex(int i);
+
+    /**
+     * 根据字符串 id 查找节点下标
+     *
+     * @param id 节点 id
+     * @return 节点下标，未找到返回 {@link #NOT_FOUND}
+     */
+    abstract int indexOf(String id);
+
+    /**
+     * 生成判断父 id 是否等于指定值的判别式，只解析一次 pid
+     *
+     * @param pid 父 id，可为 null
+     * @return 以节点下标判别的判别式
+     */
+    abstract IntPredicate pidMatcher(String pid);
+
+    /**
+     * 生成父 id 查找函数：返回节点父 id 在 pids 中的位置，不在其中返回 {@link #NOT_FOUND}
+     * <p>pids 只解析一次，查找时不生成字符串。</p>
+     *
+     * @param pids 父 id，不重复，可包含 null
+     * @return 以节点下标查找的函数
+     */
+    abstract IntUnaryOperator pidLookup(List<String> pids);
+
+    /**
+     * 按父 id 分组，父 id 等于自身 id 的节点与构造树时一致，不作为任何节点的孩子，组号为 {@link #NOT_FOUND}
+     *
+     * @param groups 输出各节点的组号，组号从 0 开始按父 id 首次出现的顺序编号
+     * @return 父 id 到组号的查找函数，没有该父 id 返回 {@link #NOT_FOUND}
+     */
+    abstract ToIntFunction<String> groupByPid(int[] groups);
+
+    /**
+     * 根据哈希值计算分区，取混合后的高位，避免与分区内哈希表使用的位相关
+     *
+     * @param hash 哈希值
+     * @param bits 分区位数
+     * @return 分区号
+     */
+    static int partitionOf(int hash, int bits) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h >>> (Integer.SIZE - bits);
+    }
+
+    /**
+     * 节点 id 的字符串形式
+     *
+     * @param i 节点下标
+     * @return id
+     */
+    abstract String id(int i);
+}
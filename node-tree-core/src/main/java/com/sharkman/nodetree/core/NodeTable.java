@@ -0,0 +1,176 @@
+package com.sharkman.nodetree.core;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * <p> Description:节点表</p>
+ * <p> 读入节点时一次性取出每个节点的 id 与父 id，并解析出父节点下标，
+ * 构造过程中不再调用包装器读取 id。整数 id 以 long 存放，见 {@link NodeKeys}。</p>
+ * <p> CreationTime: 2026/10/17 2:10 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class NodeTable<T> {
+    /**
+     * 无父节点
+     */
+    static final int NO_PARENT = -1;
+
+    private final Object[] nodes;
+    private final TreeNodeWrapper<T> wrapper;
+    private final NodeKeys<T> keys;
+    private final int[] parents;
+
+    private NodeTable(Object[] nodes, TreeNodeWrapper<T> wrapper) {
+        int size = nodes.length;
+        this.nodes = nodes;
+        this.wrapper = wrapper;
+        this.keys = NodeKeys.create(wrapper, size);
+        this.parents = new int[size];
+    }
+
+    /**
+     * 读入节点，id 重复时以后出现的节点为准
+     *
+     * @param vos     节点
+     * @param wrapper 节点包装器
+     * @param <T>     节点类型
+     * @return 节点表
+     */
+    static <T> NodeTable<T> of(List<T> vos, TreeNodeWrapper<T> wrapper) {
+        NodeTable<T> table = new NodeTable<>(vos.toArray(), wrapper);
+        table.load();
+        return table;
+    }
+
+    /**
+     * 并行读入节点，结果与 {@link #of(List, TreeNodeWrapper)} 一致，包装器须线程安全
+     * <p>按 id 的哈希将索引拆分为多个分区，每个分区由一个任务按下标顺序写入，id 重复时同样以后出现的节点为准。</p>
+     *
+     * @param vos     节点
+     * @param wrapper 节点包装器
+     * @param pool    线程池
+     * @param <T>     节点类型
+     * @return 节点表
+     */
+    static <T> NodeTable<T> of(List<T> vos, TreeNodeWrapper<T> wrapper, ForkJoinPool pool) {
+        NodeTable<T> table = new NodeTable<>(vos.toArray(), wrapper);
+        table.load(pool);
+        return table;
+    }
+
+    private void load() {
+        keys.partition(0);
+        for (int i = 0; i < nodes.length; i++) {
+            keys.read(i, node(i));
+            keys.index(i);
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            resolveParent(i);
+        }
+    }
+
+    private void load(ForkJoinPool pool) {
+        int size = nodes.length;
+        ParallelTasks.forEach(pool, size, i -> keys.read(i, node(i)));
+        int bits = partitionBits(pool.getParallelism());
+        int partitions = 1 << bits;
+        keys.partition(bits);
+        int[] offsets = new int[partitions + 1];
+        int[] byPartition = ParallelTasks.group(pool, size, keys::partitionOfId, partitions, offsets);
+        ParallelTasks.forEach(pool, partitions, 1, p -> {
+            for (int k = offsets[p]; k < offsets[p + 1]; k++) {
+                keys.index(byPartition[k]);
+            }
+        });
+        ParallelTasks.forEach(pool, size, this::resolveParent);
+    }
+
+    /**
+     * 分区数量取不小于线程数 4 倍的 2 的幂，最多 1024 个
+     */
+    private static int partitionBits(int parallelism) {
+        int bits = 0;
+        while ((1 << bits) < parallelism << 2 && bits < 10) {
+            bits++;
+        }
+        return bits;
+    }
+
+    private void resolveParent(int i) {
+        int parent = keys.parentIndex(i);
+        // 找不到父节点或父节点为自身，视为疑似根节点
+        parents[i] = parent == NodeKeys.NOT_FOUND || nodes[parent] == nodes[i] ? NO_PARENT : parent;
+    }
+
+    int size() {
+        return nodes.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    T node(int i) {
+        return (T) nodes[i];
+    }
+
+    String id(int i) {
+        return keys.id(i);
+    }
+
+    /**
+     * 父节点下标
+     *
+     * @param i 节点下标
+     * @return 父节点下标，无父节点返回 {@link #NO_PARENT}
+     */
+    int parent(int i) {
+        return parents[i];
+    }
+
+    /**
+     * 所有节点的父节点下标，不可修改
+     *
+     * @return 父节点下标
+     */
+    int[] parents() {
+        return parents;
+    }
+
+    /**
+     * 根据 id 查找节点下标
+     *
+     * @param id 节点 id
+     * @return 节点下标，未找到返回 -1
+     */
+    int indexOf(String id) {
+        return keys.indexOf(id);
+    }
+
+    /**
+     * 判断节点父 id 是否等于指定值
+     *
+     * @param pid 父 id
+     * @return 以节点下标判别的判别式
+     */
+    IntPredicate pidMatcher(String pid) {
+        return keys.pidMatcher(pid);
+    }
+
+    /**
+     * 查找节点父 id 在 pids 中的位置
+     *
+     * @param pids 父 id，不重复，可包含 null
+     * @return 以节点下标查找的函数，不在其中返回 -1
+     */
+    IntUnaryOperator pidLookup(List<String> pids) {
+        return keys.pidLookup(pids);
+    }
+
+    TreeNodeWrapper<T> wrapper() {
+        return wrapper;
+    }
+}
@@ -0,0 +1,129 @@
+package com.sharkman.nodetree.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * <p> Description:并行任务工具</p>
+ * <p> 在指定的 {@link ForkJoinPool} 中按下标区间拆分执行，不使用公共线程池。</p>
+ * <p> CreationTime: 2026/10/17 5:10 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class ParallelTasks {
+    /**
+     * 单个任务处理的最少下标数量
+     */
+    private static final int MIN_GRAIN = 1 << 10;
+
+    private ParallelTasks() throws IllegalAccessException {
+        throw new IllegalAccessException("非法访问构造函数");
+    }
+
+    /**
+     * 并行处理 [0, size) 的每个下标，按线程数自动确定粒度
+     *
+     * @param pool   线程池
+     * @param size   下标数量
+     * @param action 处理逻辑
+     */
+    static void forEach(ForkJoinPool pool, int size, IntConsumer action) {
+        forEach(pool, size, Math.max(MIN_GRAIN, size / (pool.getParallelism() << 3)), action);
+    }
+
+    /**
+     * 并行处理 [0, size) 的每个下标
+     *
+     * @param pool   线程池
+     * @param size   下标数量
+     * @param grain  单个任务处理的下标数量
+     * @param action 处理逻辑
+     */
+    static void forEach(ForkJoinPool pool, int size, int grain, IntConsumer action) {
+        if (size > 0) {
+            pool.invoke(new RangeAction(0, size, Math.max(1, grain), action));
+        }
+    }
+
+    /**
+     * 稳定分组：将 [0, size) 的下标按组号分组，组内保持下标递增
+     * <p>组号为负数的下标不参与分组。按块并行计数与写入，组数应远小于下标数量。</p>
+     *
+     * @param pool    线程池
+     * @param size    下标数量
+     * @param groupOf 下标到组号的映射，须为无副作用的函数
+     * @param groups  组数
+     * @param offsets 输出各组在结果中的起始位置，长度为 groups + 1
+     * @return 分组后的下标
+     */
+    static int[] group(ForkJoinPool pool, int size, IntUnaryOperator groupOf, int groups, int[] offsets) {
+        int chunks = Math.max(1, Math.min(pool.getParallelism() << 2, size / MIN_GRAIN));
+        int chunkSize = (size + chunks - 1) / chunks;
+        int[][] counts = new int[chunks][groups];
+        forEach(pool, chunks, 1, c -> {
+            int[] count = counts[c];
+            int to = Math.min(size, (c + 1) * chunkSize);
+            for (int i = c * chunkSize; i < to; i++) {
+                int g = groupOf.applyAsInt(i);
+                if (g >= 0) {
+                    count[g]++;
+                }
+            }
+        });
+        // 计数转换为各块在每组中的写入位置
+        int position = 0;
+        for (int g = 0; g < groups; g++) {
+            offsets[g] = position;
+            for (int c = 0; c < chunks; c++) {
+                int count = counts[c][g];
+                counts[c][g] = position;
+                position += count;
+            }
+        }
+        offsets[groups] = position;
+        int[] result = new int[position];
+        forEach(pool, chunks, 1, c -> {
+            int[] cursor = counts[c];
+            int to = Math.min(size, (c + 1) * chunkSize);
+            for (int i = c * chunkSize; i < to; i++) {
+                int g = groupOf.applyAsInt(i);
+                if (g >= 0) {
+                    result[cursor[g]++] = i;
+                }
+            }
+        });
+        return result;
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final transient IntConsumer action;
+
+        RangeAction(int from, int to, int grain, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, middle, grain, action), new RangeAction(middle, to, grain, action));
+        }
+    }
+}
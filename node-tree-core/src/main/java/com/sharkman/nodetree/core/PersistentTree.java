@@ -0,0 +1,471 @@
+package com.sharkman.nodetree.core;
+
+import java.util.*;
+
+/**
+ * <p> Description:持久化（结构共享）的不可修改树</p>
+ * <p> 每次修改返回新版本，只复制被修改节点到根节点的路径，未涉及的子树由新旧版本共享；
+ * id 到父 id 的索引为哈希前缀树，同样只复制路径。保留 m 个版本的开销约为 n + m·深度 个节点，
+ * 而不是 m 份完整的树。各版本不可修改，可在多线程间共享。</p>
+ * <p> 父子关系按 id 与父 id 确定：父节点不存在或父 id 为自身的节点为根节点，父节点加入后自动挂到父节点下。
+ * 定位节点时自根节点逐层按 id 查找孩子，开销与路径上的孩子数量相关；根节点数量多时新增、删除根节点开销随之增大。
+ * 不调用 {@link TreeNodeWrapper#setChildren(List, Object)}，不修改节点对象。</p>
+ * <p> CreationTime: 2026/10/17 11:10 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class PersistentTree<T> {
+    private final NodeKeyReader<T> keys;
+    /**
+     * 树中所有节点的 id 到父 id 的映射，父 id 在映射中且不为自身的节点挂在父节点下，否则为根节点
+     */
+    private final HashTrieMap<Object, Object> parents;
+    private final Node<T>[] roots;
+
+    private PersistentTree(NodeKeyReader<T> keys, HashTrieMap<Object, Object> parents, Node<T>[] roots) {
+        this.keys = keys;
+        this.parents = parents;
+        this.roots = roots;
+    }
+
+    /**
+     * 空树
+     *
+     * @param wrapper 节点包装器，只用于读取 id 与父 id
+     * @param <T>     节点类型
+     * @return 空树
+     */
+    public static <T> PersistentTree<T> empty(TreeNodeWrapper<T> wrapper) {
+        if (null == wrapper) {
+            throw new IllegalArgumentException("包装器不能为空");
+        }
+        return new PersistentTree<>(new NodeKeyReader<>(wrapper), HashTrieMap.empty(), newArray(0));
+    }
+
+    /**
+     * 由节点列表构造，包装器根据第一个节点获取
+     *
+     * @param nodes 所有节点数据，为空时包装器根据第一个加入的节点获取
+     * @param <T>   节点类型
+     * @return 树
+     */
+    public static <T> PersistentTree<T> of(List<T> nodes) {
+        if (null == nodes || nodes.isEmpty()) {
+            return new PersistentTree<>(null, HashTrieMap.empty(), newArray(0));
+        }
+        return of(nodes, TreeNodeProxy.createNodeWrapper(nodes.get(0)));
+    }
+
+    /**
+     * 由节点列表构造，id 重复时后出现的节点替换先出现的节点，父节点链成环的节点不在树中
+     *
+     * @param nodes   所有节点数据
+     * @param wrapper 节点包装器，只用于读取 id 与父 id
+     * @param <T>     节点类型
+     * @return 树
+     */
+    public static <T> PersistentTree<T> of(List<T> nodes, TreeNodeWrapper<T> wrapper) {
+        PersistentTree<T> empty = empty(wrapper);
+        if (null == nodes || nodes.isEmpty()) {
+            return empty;
+        }
+        NodeKeyReader<T> keys = empty.keys;
+        Map<Object, T> unique = new LinkedHashMap<>();
+        for (T node : nodes) {
+            unique.put(keys.id(node), node);
+        }
+        NodeTable<T> table = NodeTable.of(new ArrayList<>(unique.values()), wrapper);
+        ChildIndex childIndex = ChildIndex.of(table.parents());
+        int size = table.size();
+        // 自根节点逐层排列，逆序构造，孩子总是先于父节点构造
+        int[] order = new int[size];
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            if (table.parent(i) == NodeTable.NO_PARENT) {
+                order[tail++] = i;
+            }
+        }
+        int rootCount = tail;
+        for (int head = 0; head < tail; head++) {
+            int current = order[head];
+            for (int k = 0; k < childIndex.childCount(current); k++) {
+                order[tail++] = childIndex.child(current, k);
+            }
+        }
+        Node<T>[] built = newArray(size);
+        HashTrieMap<Object, Object> parents = HashTrieMap.empty();
+        for (int position = tail - 1; position >= 0; position--) {
+            int current = order[position];
+            Node<T>[] children = newArray(childIndex.childCount(current));
+            for (int k = 0; k < children.length; k++) {
+                children[k] = built[childIndex.child(current, k)];
+            }
+            T value = table.node(current);
+            Object key = keys.id(value);
+            built[current] = new Node<>(key, value, children);
+            parents = parents.put(key, keys.pid(value));
+        }
+        Node<T>[] roots = newArray(rootCount);
+        for (int k = 0; k < rootCount; k++) {
+            roots[k] = built[order[k]];
+        }
+        return new PersistentTree<>(keys, parents, roots);
+    }
+
+    /**
+     * 节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return parents.size();
+    }
+
+    /**
+     * 根节点，只读
+     *
+     * @return 根节点
+     */
+    public List<Node<T>> roots() {
+        return new NodeList<>(roots);
+    }
+
+    /**
+     * 是否包含节点
+     *
+     * @param id 节点 id
+     * @return 是否包含
+     */
+    public boolean contains(String id) {
+        return null != keys && parents.containsKey(keys.keyOf(id));
+    }
+
+    /**
+     * 根据 id 查找节点
+     *
+     * @param id 节点 id
+     * @return 节点，不存在时返回 null
+     */
+    public Node<T> find(String id) {
+        if (null == keys) {
+            return null;
+        }
+        Object key = keys.keyOf(id);
+        if (!parents.containsKey(key)) {
+            return null;
+        }
+        Node<T>[] path = pathOf(key);
+        return path[path.length - 1];
+    }
+
+    /**
+     * 根据 id 获取节点数据
+     *
+     * @param id 节点 id
+     * @return 节点数据，不存在时返回 null
+     */
+    public T get(String id) {
+        Node<T> node = find(id);
+        return null == node ? null : node.value;
+    }
+
+    /**
+     * 新增或替换节点，返回新版本
+     * <p>id 已存在且父 id 不变时替换节点数据，保留孩子；父 id 改变时连同子树移到新的父节点下，追加到孩子末尾；
+     * id 不存在时新增，父 id 为该 id 的根节点成为它的孩子。</p>
+     *
+     * @param value 节点数据
+     * @return 新版本
+     * @throws IllegalStateException 新的父节点是节点自身的后代，或是新增后将成为其后代的节点
+     */
+    public PersistentTree<T> with(T value) {
+        if (null == value) {
+            throw new IllegalArgumentException("节点不能为空");
+        }
+        if (null == keys) {
+            return new PersistentTree<>(new NodeKeyReader<>(TreeNodeWrapperRegistry.getWrapper(value)), parents, roots)
+                    .with(value);
+        }
+        Object key = keys.id(value);
+        Object pid = keys.pid(value);
+        if (!parents.containsKey(key)) {
+            return insert(key, pid, value);
+        }
+        Node<T>[] path = pathOf(key);
+        Node<T> old = path[path.length - 1];
+        Node<T> replacement = new Node<>(key, value, old.children);
+        if (Objects.equals(parents.get(key), pid)) {
+            return new PersistentTree<>(keys, parents, replacePath(path, replacement));
+        }
+        checkCycle(key, pid);
+        Node<T>[] detachedRoots = replacePath(path, null);
+        PersistentTree<T> detached = new PersistentTree<>(keys, parents.put(key, pid), detachedRoots);
+        return detached.attach(key, pid, replacement);
+    }
+
+    /**
+     * 删除节点及其所有后代，返回新版本
+     *
+     * @param id 节点 id
+     * @return 新版本，节点不存在时返回自身
+     */
+    public PersistentTree<T> without(String id) {
+        if (null == keys) {
+            return this;
+        }
+        Object key = keys.keyOf(id);
+        if (!parents.containsKey(key)) {
+            return this;
+        }
+        Node<T>[] path = pathOf(key);
+        HashTrieMap<Object, Object> remaining = parents;
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        stack.push(path[path.length - 1]);
+        while (!stack.isEmpty()) {
+            Node<T> current = stack.pop();
+            remaining = remaining.remove(current.key);
+            for (Node<T> child : current.children) {
+                stack.push(child);
+            }
+        }
+        return new PersistentTree<>(keys, remaining, replacePath(path, null));
+    }
+
+    /**
+     * 只删除节点本身，返回新版本
+     * <p>孩子连同子树成为根节点，追加到根节点末尾；节点再次加入时孩子重新挂到节点下，
+     * 与按邻接表的行删除后重新构造的结果一致。</p>
+     *
+     * @param id 节点 id
+     * @return 新版本，节点不存在时返回自身
+     */
+    public PersistentTree<T> withoutNode(String id) {
+        if (null == keys) {
+            return this;
+        }
+        Object key = keys.keyOf(id);
+        if (!parents.containsKey(key)) {
+            return this;
+        }
+        Node<T>[] path = pathOf(key);
+        Node<T>[] children = path[path.length - 1].children;
+        Node<T>[] remainingRoots = replacePath(path, null);
+        Node<T>[] newRoots = Arrays.copyOf(remainingRoots, remainingRoots.length + children.length);
+        System.arraycopy(children, 0, newRoots, remainingRoots.length, children.length);
+        return new PersistentTree<>(keys, parents.remove(key), newRoots);
+    }
+
+    /**
+     * 按邻接表的行应用一个变更事件，返回新版本
+     * <p>新增事件要求 id 不存在；修改事件按 {@link #with(Object)} 替换节点，id 不存在时新增；
+     * 删除事件按 {@link #withoutNode(String)} 只删除节点本身，不存在的节点被忽略。
+     * {@link TreeSnapshotHolder} 与 {@link TreeChangeApplier} 都以此应用事件。</p>
+     *
+     * @param event 事件
+     * @return 新版本
+     * @throws IllegalArgumentException 事件为空，或新增的节点 id 已存在
+     * @throws IllegalStateException    新的父节点是节点自身的后代
+     */
+    public PersistentTree<T> apply(TreeChangeEvent<T> event) {
+        if (null == event) {
+            throw new IllegalArgumentException("事件不能为空");
+        }
+        if (event.getType() == TreeChangeEvent.Type.DELETE) {
+            return withoutNode(event.getId());
+        }
+        T node = event.getNode();
+        if (event.getType() == TreeChangeEvent.Type.INSERT && null != keys && parents.containsKey(keys.id(node))) {
+            throw new IllegalArgumentException("插入节点失败！id为 " + keys.id(node) + " 的节点已存在！");
+        }
+        return with(node);
+    }
+
+    /**
+     * 节点包装器，树为空且未指定包装器时为 null
+     */
+    TreeNodeWrapper<T> wrapper() {
+        return null == keys ? null : keys.wrapper();
+    }
+
+    private PersistentTree<T> insert(Object key, Object pid, T value) {
+        // 等待该节点的根节点及其后代都会成为它的后代，父节点是其中之一时会成环
+        checkCycle(key, pid);
+        // 收养等待该节点的根节点
+        List<Node<T>> adopted = new ArrayList<>();
+        List<Node<T>> remainingRoots = new ArrayList<>(roots.length);
+        for (Node<T> root : roots) {
+            if (Objects.equals(parents.get(root.key), key) && !Objects.equals(root.key, key)) {
+                adopted.add(root);
+            } else {
+                remainingRoots.add(root);
+            }
+        }
+        Node<T> node = new Node<>(key, value, adopted.toArray(newArray(0)));
+        Node<T>[] newRoots = adopted.isEmpty() ? roots : remainingRoots.toArray(newArray(0));
+        return new PersistentTree<>(keys, parents.put(key, pid), newRoots).attach(key, pid, node);
+    }
+
+    /**
+     * 挂到父节点孩子末尾，父节点不存在或为自身时作为根节点，parents 中须已记录 key
+     */
+    private PersistentTree<T> attach(Object key, Object pid, Node<T> node) {
+        if (Objects.equals(key, pid) || !parents.containsKey(pid)) {
+            return new PersistentTree<>(keys, parents, append(roots, node));
+        }
+        Node<T>[] path = pathOf(pid);
+        Node<T> parent = path[path.length - 1];
+        return new PersistentTree<>(keys, parents,
+                replacePath(path, new Node<>(parent.key, parent.value, append(parent.children, node))));
+    }
+
+    /**
+     * 自新的父节点沿父 id 向上查找，遇到节点自身说明会成环；
+     * 节点尚不在树中时，查找停在等待它的根节点的父 id 上，同样能发现成环
+     */
+    private void checkCycle(Object key, Object pid) {
+        Object current = pid;
+        // 树中不存在环，最多走 size 步
+        for (int steps = 0; steps <= parents.size() && parents.containsKey(current)
+                && !Objects.equals(current, key); steps++) {
+            Object next = parents.get(current);
+            if (Objects.equals(next, current)) {
+                return;
+            }
+            current = next;
+        }
+        if (Objects.equals(current, key) && !Objects.equals(pid, key)) {
+            throw new IllegalStateException("修改节点失败！新的父节点是节点 " + key + " 自身的后代！");
+        }
+    }
+
+    /**
+     * 自根节点到 key 的路径，key 须在树中
+     */
+    private Node<T>[] pathOf(Object key) {
+        Deque<Object> chain = new ArrayDeque<>();
+        for (Object current = key; ; ) {
+            if (chain.size() > parents.size()) {
+                throw new IllegalStateException("节点 " + key + " 的父节点链存在环");
+            }
+            chain.push(current);
+            Object pid = parents.get(current);
+            if (Objects.equals(pid, current) || !parents.containsKey(pid)) {
+                break;
+            }
+            current = pid;
+        }
+        Node<T>[] path = newArray(chain.size());
+        Node<T>[] siblings = roots;
+        for (int level = 0; level < path.length; level++) {
+            path[level] = siblings[indexOf(siblings, chain.pop())];
+            siblings = path[level].children;
+        }
+        return path;
+    }
+
+    /**
+     * 以 replacement 替换路径末端的节点并复制路径，replacement 为 null 时删除末端节点
+     *
+     * @return 新的根节点数组
+     */
+    private Node<T>[] replacePath(Node<T>[] path, Node<T> replacement) {
+        Node<T> current = replacement;
+        for (int level = path.length - 1; level > 0; level--) {
+            Node<T> parent = path[level - 1];
+            Node<T>[] children = replace(parent.children, path[level], current);
+            current = new Node<>(parent.key, parent.value, children);
+        }
+        return replace(roots, path[0], current);
+    }
+
+    private static <T> Node<T>[] replace(Node<T>[] nodes, Node<T> old, Node<T> replacement) {
+        int k = 0;
+        while (nodes[k] != old) {
+            k++;
+        }
+        if (null != replacement) {
+            Node<T>[] copy = nodes.clone();
+            copy[k] = replacement;
+            return copy;
+        }
+        Node<T>[] copy = newArray(nodes.length - 1);
+        System.arraycopy(nodes, 0, copy, 0, k);
+        System.arraycopy(nodes, k + 1, copy, k, nodes.length - k - 1);
+        return copy;
+    }
+
+    private static <T> Node<T>[] append(Node<T>[] nodes, Node<T> node) {
+        Node<T>[] copy = Arrays.copyOf(nodes, nodes.length + 1);
+        copy[nodes.length] = node;
+        return copy;
+    }
+
+    private static <T> int indexOf(Node<T>[] nodes, Object key) {
+        for (int k = 0; k < nodes.length; k++) {
+            if (Objects.equals(nodes[k].key, key)) {
+                return k;
+            }
+        }
+        throw new IllegalStateException("节点 " + key + " 不在树中");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newArray(int length) {
+        return new Node[length];
+    }
+
+    /**
+     * 树中的节点，不可修改，可被多个版本共享
+     *
+     * @param <T> 节点数据类型
+     */
+    public static final class Node<T> {
+        private final Object key;
+        private final T value;
+        private final Node<T>[] children;
+
+        Node(Object key, T value, Node<T>[] children) {
+            this.key = key;
+            this.value = value;
+            this.children = children;
+        }
+
+        /**
+         * 节点数据
+         *
+         * @return 节点数据
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * 孩子节点，只读
+         *
+         * @return 孩子节点，没有时返回空集合
+         */
+        public List<Node<T>> getChildren() {
+            return new NodeList<>(children);
+        }
+    }
+
+    private static final class NodeList<T> extends AbstractList<Node<T>> implements RandomAccess {
+        private final Node<T>[] nodes;
+
+        NodeList(Node<T>[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public Node<T> get(int k) {
+            return nodes[k];
+        }
+
+        @Override
+        public int size() {
+            return nodes.length;
+        }
+    }
+}
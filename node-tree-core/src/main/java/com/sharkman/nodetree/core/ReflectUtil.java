@@ -4,6 +4,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.function.Function;
 
 /**
  * <p> Description:反射工具类</p>
@@ -120,6 +121,42 @@ public final class ReflectUtil {
 
     }
 
+    /**
+     * 将 getter 转换为预先绑定的访问器，多次调用时代替 {@link #methodInvoke(Method, Object, Object...)}
+     *
+     * @param getter getter 方法
+     * @param <T>    目标对象类型
+     * @return 访问器
+     * @since 2.1.0
+     */
+    public static <T> Function<T, Object> getter(Method getter) {
+        return AccessorFactory.getter(getter);
+    }
+
+    /**
+     * 方法访问失败异常
+     *
+     * @param method 方法
+     * @param e      异常
+     * @return 异常信息
+     */
+    static String accessErrorMessage(Method method, Throwable e) {
+        return String.format(
+                INVOKE_ACCESS_ERROR_MESSAGE, method.getDeclaringClass().getName(), method.getName(), e.getMessage());
+    }
+
+    /**
+     * 方法调用失败异常
+     *
+     * @param method 方法
+     * @param e      异常
+     * @return 异常信息
+     */
+    static String invokeErrorMessage(Method method, Throwable e) {
+        return String.format(
+                INVOKE_OTHER_ERROR_MESSAGE, method.getDeclaringClass().getName(), method.getName(), e.getMessage());
+    }
+
     /**
      * 未找到指定注解的属性异常
      *
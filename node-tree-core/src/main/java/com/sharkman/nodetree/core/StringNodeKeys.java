@@ -0,0 +1,110 @@
+package com.sharkman.nodetree.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p> Description:字符串形式的节点键</p>
+ * <p> CreationTime: 2026/10/17 3:48 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class StringNodeKeys<T> extends NodeKeys<T> {
+    private final TreeNodeWrapper<T> wrapper;
+    private final String[] ids;
+    private final String[] pids;
+    private Map<String, Integer>[] index;
+    private int bits;
+
+    StringNodeKeys(TreeNodeWrapper<T> wrapper, int size) {
+        this.wrapper = wrapper;
+        this.ids = new String[size];
+        this.pids = new String[size];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void partition(int bits) {
+        this.bits = bits;
+        int expected = ids.length >> bits;
+        this.index = new Map[1 << bits];
+        for (int p = 0; p < index.length; p++) {
+            index[p] = new HashMap<>(Math.max(16, (int) (expected / 0.75f) + 1));
+        }
+    }
+
+    @Override
+    int partitionOfId(int i) {
+        return partitionOf(ids[i]);
+    }
+
+    private int partitionOf(String key) {
+        return 0 == bits || null == key ? 0 : partitionOf(key.hashCode(), bits);
+    }
+
+    @Override
+    void read(int i, T node) {
+        ids[i] = wrapper.getId(node);
+        pids[i] = wrapper.getPId(node);
+    }
+
+    @Override
+    void index(int i) {
+        index[partitionOf(ids[i])].put(ids[i], i);
+    }
+
+    @Override
+    int parentIndex(int i) {
+        return indexOf(pids[i]);
+    }
+
+    @Override
+    int indexOf(String id) {
+        Integer i = index[partitionOf(id)].get(id);
+        return null == i ? NOT_FOUND : i;
+    }
+
+    @Override
+    IntPredicate pidMatcher(String pid) {
+        return i -> Objects.equals(pids[i], pid);
+    }
+
+    @Override
+    IntUnaryOperator pidLookup(List<String> pids) {
+        Map<String, Integer> positions = new HashMap<>(Math.max(16, (int) (pids.size() / 0.75f) + 1));
+        for (int k = 0; k < pids.size(); k++) {
+            positions.put(pids.get(k), k);
+        }
+        return i -> positions.getOrDefault(this.pids[i], NOT_FOUND);
+    }
+
+    @Override
+    ToIntFunction<String> groupByPid(int[] groups) {
+        Map<String, Integer> groupOf = new HashMap<>();
+        for (int i = 0; i < pids.length; i++) {
+            if (Objects.equals(ids[i], pids[i])) {
+                groups[i] = NOT_FOUND;
+                continue;
+            }
+            Integer group = groupOf.get(pids[i]);
+            if (null == group) {
+                group = groupOf.size();
+                groupOf.put(pids[i], group);
+            }
+            groups[i] = group;
+        }
+        return pid -> groupOf.getOrDefault(pid, NOT_FOUND);
+    }
+
+    @Override
+    String id(int i) {
+        return ids[i];
+    }
+}
@@ -0,0 +1,246 @@
+package com.sharkman.nodetree.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * <p> Description:祖先查询索引</p>
+ * <p> 预先计算每个节点的深度及第 2^k 个祖先（倍增表），最近公共祖先与第 k 个祖先的查询为 O(log 深度)，
+ * 不再反复扫描列表查找父节点，适合面包屑、最近共同上级一类查询。</p>
+ * <p> 父子关系按 id 与父 id 确定，与 {@link TreeUtil#buildTree(List)} 一致。不修改节点对象，
+ * 构造完成后不可修改，可在多线程间共享。父节点链成环、无法从根节点到达的节点不参与查询。</p>
+ * <p> CreationTime: 2026/10/17 8:50 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class TreeAncestorIndex<T> {
+    /**
+     * 节点不存在，或没有对应的祖先
+     */
+    public static final int NONE = -1;
+
+    private final NodeTable<T> table;
+    private final int[] depths;
+    /**
+     * up[k][i] 为节点 i 的第 2^k 个祖先
+     */
+    private final int[][] up;
+
+    private TreeAncestorIndex(NodeTable<T> table) {
+        this.table = table;
+        int size = table.size();
+        ChildIndex childIndex = ChildIndex.of(table.parents());
+        this.depths = new int[size];
+        Arrays.fill(depths, NONE);
+        int[] queue = new int[size];
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            if (table.parent(i) == NodeTable.NO_PARENT) {
+                depths[i] = 0;
+                queue[tail++] = i;
+            }
+        }
+        int maxDepth = 0;
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            for (int k = 0; k < childIndex.childCount(current); k++) {
+                int child = childIndex.child(current, k);
+                depths[child] = depths[current] + 1;
+                maxDepth = Math.max(maxDepth, depths[child]);
+                queue[tail++] = child;
+            }
+        }
+        int levels = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(maxDepth));
+        this.up = new int[levels][];
+        up[0] = new int[size];
+        for (int i = 0; i < size; i++) {
+            up[0][i] = depths[i] == NONE ? NONE : table.parent(i);
+        }
+        for (int k = 1; k < levels; k++) {
+            int[] previous = up[k - 1];
+            int[] current = new int[size];
+            for (int i = 0; i < size; i++) {
+                current[i] = previous[i] == NONE ? NONE : previous[previous[i]];
+            }
+            up[k] = current;
+        }
+    }
+
+    /**
+     * 构造索引，包装器根据第一个节点获取
+     *
+     * @param nodes 所有节点数据
+     * @param <T>   节点类型
+     * @return 祖先查询索引
+     */
+    public static <T> TreeAncestorIndex<T> of(List<T> nodes) {
+        if (null == nodes || nodes.isEmpty()) {
+            return of(Collections.emptyList(), null);
+        }
+        return of(nodes, TreeNodeProxy.createNodeWrapper(nodes.get(0)));
+    }
+
+    /**
+     * 构造索引
+     *
+     * @param nodes   所有节点数据
+     * @param wrapper 节点包装器，只用于读取 id 与父 id
+     * @param <T>     节点类型
+     * @return 祖先查询索引
+     */
+    public static <T> TreeAncestorIndex<T> of(List<T> nodes, TreeNodeWrapper<T> wrapper) {
+        return new TreeAncestorIndex<>(NodeTable.of(null == nodes ? Collections.emptyList() : nodes, wrapper));
+    }
+
+    /**
+     * 节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * 获取节点
+     *
+     * @param i 节点下标
+     * @return 节点
+     */
+    public T node(int i) {
+        return table.node(i);
+    }
+
+    /**
+     * 根据 id 查找节点下标
+     *
+     * @param id 节点 id
+     * @return 节点下标，未找到返回 {@link #NONE}
+     */
+    public int indexOf(String id) {
+        return table.indexOf(id);
+    }
+
+    /**
+     * 节点深度，根节点为 0
+     *
+     * @param i 节点下标
+     * @return 深度，无法从根节点到达时返回 {@link #NONE}
+     */
+    public int depth(int i) {
+        return depths[i];
+    }
+
+    /**
+     * 第 k 个祖先，第 0 个为自身
+     *
+     * @param x 节点下标
+     * @param k 向上的层数
+     * @return 祖先下标，不存在时返回 {@link #NONE}
+     */
+    public int kthAncestor(int x, int k) {
+        if (k < 0 || depths[x] == NONE || k > depths[x]) {
+            return NONE;
+        }
+        int current = x;
+        for (int level = 0; k > 0; level++, k >>>= 1) {
+            if ((k & 1) != 0) {
+                current = up[level][current];
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 第 k 个祖先，第 0 个为自身
+     *
+     * @param id 节点 id
+     * @param k  向上的层数
+     * @return 祖先节点，不存在时返回 null
+     */
+    public T kthAncestor(String id, int k) {
+        int x = table.indexOf(id);
+        int ancestor = x < 0 ? NONE : kthAncestor(x, k);
+        return ancestor == NONE ? null : table.node(ancestor);
+    }
+
+    /**
+     * 最近公共祖先，节点本身也可以是公共祖先
+     *
+     * @param a 节点下标
+     * @param b 节点下标
+     * @return 最近公共祖先下标，不在同一棵树中时返回 {@link #NONE}
+     */
+    public int lca(int a, int b) {
+        if (depths[a] == NONE || depths[b] == NONE) {
+            return NONE;
+        }
+        int x = depths[a] >= depths[b] ? kthAncestor(a, depths[a] - depths[b]) : a;
+        int y = depths[b] > depths[a] ? kthAncestor(b, depths[b] - depths[a]) : b;
+        if (x == y) {
+            return x;
+        }
+        for (int level = up.length - 1; level >= 0; level--) {
+            if (up[level][x] != up[level][y]) {
+                x = up[level][x];
+                y = up[level][y];
+            }
+        }
+        return up[0][x];
+    }
+
+    /**
+     * 最近公共祖先，节点本身也可以是公共祖先
+     *
+     * @param aId 节点 id
+     * @param bId 节点 id
+     * @return 最近公共祖先，任一节点不存在或不在同一棵树中时返回 null
+     */
+    public T lca(String aId, String bId) {
+        int a = table.indexOf(aId);
+        int b = table.indexOf(bId);
+        int ancestor = a < 0 || b < 0 ? NONE : lca(a, b);
+        return ancestor == NONE ? null : table.node(ancestor);
+    }
+
+    /**
+     * 从节点到根节点的路径，第 0 个为自身，最后一个为根节点，返回只读视图，按需计算
+     *
+     * @param id 节点 id
+     * @return 路径，节点不存在或无法从根节点到达时返回空集合
+     */
+    public List<T> pathToRoot(String id) {
+        int x = table.indexOf(id);
+        if (x < 0 || depths[x] == NONE) {
+            return Collections.emptyList();
+        }
+        return new PathView(x);
+    }
+
+    private final class PathView extends AbstractList<T> implements RandomAccess {
+        private final int start;
+
+        PathView(int start) {
+            this.start = start;
+        }
+
+        @Override
+        public T get(int k) {
+            int ancestor = kthAncestor(start, k);
+            if (ancestor == NONE) {
+                throw new IndexOutOfBoundsException("序号越界：" + k);
+            }
+            return table.node(ancestor);
+        }
+
+        @Override
+        public int size() {
+            return depths[start] + 1;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.sharkman.nodetree.core;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * <p> Description:流式树构造器</p>
+ * <p> 逐个接收节点，父节点已到达时立即拼接，否则暂存到父节点到达为止，无需先把全部节点放入 List。
+ * 孩子顺序与节点到达顺序一致，全部节点到达后调用 {@link #build()} 等方法取得根节点，id 不重复时结果与 {@link TreeUtil} 的对应方法一致。</p>
+ * <p> id 重复时，后到达的节点替换先到达的节点，此后到达的孩子挂到后到达的节点上，先到达的孩子仍留在先到达的节点上，
+ * 与 {@link TreeUtil} 把所有孩子挂到最后出现的节点上不同。
+ * 构造器不是线程安全的，构造完成后不能再接收节点。</p>
+ * <p> CreationTime: 2026/10/17 6:40 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class TreeBuilder<T> {
+    private TreeNodeWrapper<T> wrapper;
+    private NodeKeyReader<T> keys;
+    /**
+     * id 到节点的映射，按到达顺序保存
+     */
+    private final Map<Object, T> nodes = new LinkedHashMap<>();
+    /**
+     * 等待父节点的节点，以父 id 分组
+     */
+    private final Map<Object, List<Orphan<T>>> orphans = new HashMap<>();
+    /**
+     * 疑似根节点，按到达顺序保存，找到父节点后置为 null
+     */
+    private final List<T> candidates = new ArrayList<>();
+    private boolean built;
+
+    private TreeBuilder(TreeNodeWrapper<T> wrapper) {
+        if (null != wrapper) {
+            useWrapper(wrapper);
+        }
+    }
+
+    /**
+     * 创建构造器，包装器根据第一个节点获取
+     *
+     * @param <T> 节点类型
+     * @return 构造器
+     */
+    public static <T> TreeBuilder<T> create() {
+        return new TreeBuilder<>(null);
+    }
+
+    /**
+     * 创建构造器
+     *
+     * @param wrapper 节点包装器
+     * @param <T>     节点类型
+     * @return 构造器
+     */
+    public static <T> TreeBuilder<T> create(TreeNodeWrapper<T> wrapper) {
+        if (null == wrapper) {
+            throw new IllegalArgumentException("包装器不能为空");
+        }
+        return new TreeBuilder<>(wrapper);
+    }
+
+    private void useWrapper(TreeNodeWrapper<T> wrapper) {
+        this.wrapper = wrapper;
+        this.keys = new NodeKeyReader<>(wrapper);
+    }
+
+    /**
+     * 接收一个节点
+     *
+     * @param node 节点
+     * @return this
+     */
+    public TreeBuilder<T> accept(T node) {
+        if (null == node) {
+            throw new IllegalArgumentException("节点不能为空");
+        }
+        if (built) {
+            throw new IllegalStateException("构造器已完成构造，不能再接收节点");
+        }
+        if (null == wrapper) {
+            useWrapper(TreeNodeWrapperRegistry.getWrapper(node));
+        }
+        Object id = keys.id(node);
+        nodes.put(id, node);
+        // 1. 收养等待自己的节点
+        List<Orphan<T>> waiting = orphans.remove(id);
+        if (null != waiting) {
+            for (Orphan<T> orphan : waiting) {
+                TreeCoreConstructor.addChild(node, orphan.node, wrapper);
+                candidates.set(orphan.slot, null);
+            }
+        }
+        // 2. 挂到父节点上，父节点未到达则等待
+        Object pid = keys.pid(node);
+        T parent = nodes.get(pid);
+        if (null != parent && parent != node) {
+            TreeCoreConstructor.addChild(parent, node, wrapper);
+            return this;
+        }
+        if (null == parent) {
+            orphans.computeIfAbsent(pid, k -> new ArrayList<>(1)).add(new Orphan<>(node, candidates.size()));
+        }
+        candidates.add(node);
+        return this;
+    }
+
+    /**
+     * 接收迭代器中的所有节点
+     *
+     * @param iterator 节点迭代器
+     * @return this
+     */
+    public TreeBuilder<T> acceptAll(Iterator<? extends T> iterator) {
+        while (iterator.hasNext()) {
+            accept(iterator.next());
+        }
+        return this;
+    }
+
+    /**
+     * 接收所有节点
+     *
+     * @param iterable 节点集合
+     * @return this
+     */
+    public TreeBuilder<T> acceptAll(Iterable<? extends T> iterable) {
+        return acceptAll(iterable.iterator());
+    }
+
+    /**
+     * 接收分割迭代器中的所有节点
+     *
+     * @param spliterator 分割迭代器
+     * @return this
+     */
+    public TreeBuilder<T> acceptAll(Spliterator<? extends T> spliterator) {
+        spliterator.forEachRemaining(this::accept);
+        return this;
+    }
+
+    /**
+     * 按顺序接收流中的所有节点，并行流也按遇到顺序逐个接收
+     *
+     * @param stream 节点流
+     * @return this
+     */
+    public TreeBuilder<T> acceptAll(Stream<? extends T> stream) {
+        stream.forEachOrdered(this::accept);
+        return this;
+    }
+
+    /**
+     * 已接收的节点数量，id 重复的节点只计一次
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * 完成构造，返回可能的根节点，id 不重复时结果与 {@link TreeUtil#buildTree(List)} 一致
+     *
+     * @return 无父节点的节点
+     */
+    public List<T> build() {
+        built = true;
+        List<T> roots = new ArrayList<>();
+        for (T candidate : candidates) {
+            if (null != candidate) {
+                roots.add(candidate);
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * 完成构造，返回指定 id 的节点，id 不重复时结果与 {@link TreeUtil#buildTreeOfRootId(List, String)} 一致
+     *
+     * @param id 根节点的id，不可为null
+     * @return 根节点
+     */
+    public T buildOfRootId(String id) {
+        if (null == id) {
+            throw new IllegalArgumentException("构建树失败！根节点id不能为空！");
+        }
+        built = true;
+        T root = nodes.get(keyOf(id));
+        if (null == root) {
+            throw new NullPointerException("构建树失败！未找到id为 " + id + " 的根节点！");
+        }
+        return root;
+    }
+
+    /**
+     * 完成构造，返回父 id 为指定值的根节点，id 不重复时结果与 {@link TreeUtil#buildTreeOfRootPIdForList(List, String)} 一致
+     *
+     * @param pid 根节点的父id，可为 null
+     * @return 所有根节点，没有时返回 null
+     */
+    public List<T> buildOfRootPIdForList(String pid) {
+        Object key = keyOf(pid);
+        List<T> roots = new ArrayList<>();
+        for (T root : build()) {
+            if (Objects.equals(keys.pid(root), key)) {
+                roots.add(root);
+            }
+        }
+        // 没找到，可能为子树，整体过滤
+        if (roots.isEmpty()) {
+            for (T node : nodes.values()) {
+                if (Objects.equals(keys.pid(node), key)) {
+                    roots.add(node);
+                }
+            }
+        }
+        return roots.isEmpty() ? null : roots;
+    }
+
+    /**
+     * 完成构造，返回可修改的树，之后通过返回的树增删、移动节点
+     *
+     * @return 可修改的树
+     */
+    public MutableTree<T> buildMutable() {
+        built = true;
+        MutableTree<T> tree = new MutableTree<>(null == wrapper ? null : keys, nodes);
+        for (T candidate : candidates) {
+            // id 重复时被替换的节点不再属于这棵树
+            if (null != candidate && nodes.get(keys.id(candidate)) == candidate) {
+                tree.addRoot(candidate);
+            }
+        }
+        orphans.forEach((pid, waiting) -> {
+            for (Orphan<T> orphan : waiting) {
+                if (nodes.get(keys.id(orphan.node)) == orphan.node) {
+                    tree.park(pid, orphan.node);
+                }
+            }
+        });
+        return tree;
+    }
+
+    private Object keyOf(String id) {
+        return null == keys ? id : keys.keyOf(id);
+    }
+
+    private static final class Orphan<T> {
+        private final T node;
+        private final int slot;
+
+        Orphan(T node, int slot) {
+            this.node = node;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.sharkman.nodetree.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p> Description:节点变更应用器</p>
+ * <p> 将邻接表的变更事件（如 CDC 事件流）按顺序、成批应用到 {@link TreeSnapshotHolder} 上，每批应用完成后原子地发布
+ * 新的 {@link TreeSnapshot}。读线程通过 {@link #snapshot()} 取得的快照不再修改，不会看到应用了一半的批次；
+ * 某个事件失败时发布之前已应用的事件，并抛出 {@link TreeChangeException}，未应用的事件从异常中取得，不会丢失。每个事件只复制涉及节点到根节点的路径，开销与树的大小无关。</p>
+ * <p> 事件按 {@link PersistentTree#apply(TreeChangeEvent)} 应用：新增事件的 id 已存在时失败，修改事件以 id 匹配，
+ * 不存在时新增；删除不存在的节点被忽略，被删除节点的孩子成为根节点，与 {@link TreeUtil#buildTree(List)} 的规则一致。
+ * 不调用 {@link TreeNodeWrapper#setChildren(List, Object)}，节点对象可在读线程间共享。</p>
+ * <p> 写操作之间互斥，通常由一个线程循环调用 {@link #drain(BlockingQueue, int, long, TimeUnit)}。</p>
+ * <p> CreationTime: 2026/10/17 10:10 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class TreeChangeApplier<T> {
+    private final TreeSnapshotHolder<T> holder;
+
+    private TreeChangeApplier(TreeSnapshotHolder<T> holder) {
+        this.holder = holder;
+    }
+
+    /**
+     * 创建应用器，包装器根据第一个节点获取
+     *
+     * @param initial 初始节点，可为 null
+     * @param <T>     节点类型
+     * @return 应用器
+     */
+    public static <T> TreeChangeApplier<T> of(List<T> initial) {
+        return new TreeChangeApplier<>(TreeSnapshotHolder.of(initial));
+    }
+
+    /**
+     * 创建应用器
+     *
+     * @param initial 初始节点，可为 null
+     * @param wrapper 节点包装器，只用于读取 id 与父 id
+     * @param <T>     节点类型
+     * @return 应用器
+     */
+    public static <T> TreeChangeApplier<T> of(List<T> initial, TreeNodeWrapper<T> wrapper) {
+        return new TreeChangeApplier<>(TreeSnapshotHolder.of(initial, wrapper));
+    }
+
+    /**
+     * 最近一次发布的快照
+     *
+     * @return 快照，不可修改
+     */
+    public TreeSnapshot<T> snapshot() {
+        return holder.current();
+    }
+
+    /**
+     * 按顺序应用一批事件，全部应用后发布新的快照
+     *
+     * @param events 事件
+     * @return 应用的事件数量
+     * @throws TreeChangeException 某个事件应用失败，之前的事件已发布
+     */
+    public int apply(Collection<? extends TreeChangeEvent<T>> events) {
+        if (null == events || events.isEmpty()) {
+            return 0;
+        }
+        holder.apply(events);
+        return events.size();
+    }
+
+    /**
+     * 从队列中取出至多 maxBatch 个事件作为一批应用，队列为空时最多等待 timeout
+     *
+     * @param queue    事件队列
+     * @param maxBatch 每批最多的事件数量
+     * @param timeout  等待时长
+     * @param unit     时长单位
+     * @return 应用的事件数量，等待超时返回 0
+     * @throws InterruptedException 等待时被中断
+     * @throws TreeChangeException  某个事件应用失败，之前的事件已发布，已从队列取出但未应用的事件从异常中取得
+     */
+    public int drain(BlockingQueue<? extends TreeChangeEvent<T>> queue, int maxBatch, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("每批事件数量必须大于 0");
+        }
+        TreeChangeEvent<T> first = queue.poll(timeout, unit);
+        if (null == first) {
+            return 0;
+        }
+        List<TreeChangeEvent<T>> batch = new ArrayList<>(Math.min(maxBatch, queue.size() + 1));
+        batch.add(first);
+        queue.drainTo(batch, maxBatch - 1);
+        return apply(batch);
+    }
+}
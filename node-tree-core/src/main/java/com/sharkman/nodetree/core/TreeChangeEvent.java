@@ -0,0 +1,107 @@
+package com.sharkman.nodetree.core;
+
+/**
+ * <p> Description:节点变更事件</p>
+ * <p> 对应邻接表中一行记录的新增、修改或删除，由 {@link PersistentTree#apply(TreeChangeEvent)} 按顺序应用。
+ * 新增与修改事件携带节点对象，id 与父 id 由包装器从节点读取；删除事件只携带 id。</p>
+ * <p> CreationTime: 2026/10/17 10:10 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class TreeChangeEvent<T> {
+    /**
+     * 事件类型
+     */
+    public enum Type {
+        /**
+         * 新增，id 已存在时失败
+         */
+        INSERT,
+        /**
+         * 修改，id 不存在时新增
+         */
+        UPDATE,
+        /**
+         * 删除
+         */
+        DELETE
+    }
+
+    private final Type type;
+    private final String id;
+    private final T node;
+
+    private TreeChangeEvent(Type type, String id, T node) {
+        this.type = type;
+        this.id = id;
+        this.node = node;
+    }
+
+    /**
+     * 新增事件
+     *
+     * @param node 新增的节点
+     * @param <T>  节点类型
+     * @return 事件
+     */
+    public static <T> TreeChangeEvent<T> insert(T node) {
+        if (null == node) {
+            throw new IllegalArgumentException("节点不能为空");
+        }
+        return new TreeChangeEvent<>(Type.INSERT, null, node);
+    }
+
+    /**
+     * 修改事件，节点以 id 匹配，替换原有节点
+     *
+     * @param node 修改后的节点
+     * @param <T>  节点类型
+     * @return 事件
+     */
+    public static <T> TreeChangeEvent<T> update(T node) {
+        if (null == node) {
+            throw new IllegalArgumentException("节点不能为空");
+        }
+        return new TreeChangeEvent<>(Type.UPDATE, null, node);
+    }
+
+    /**
+     * 删除事件
+     *
+     * @param id  被删除节点的 id
+     * @param <T> 节点类型
+     * @return 事件
+     */
+    public static <T> TreeChangeEvent<T> delete(String id) {
+        return new TreeChangeEvent<>(Type.DELETE, id, null);
+    }
+
+    /**
+     * 事件类型
+     *
+     * @return 事件类型
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 被删除节点的 id，新增与修改事件返回 null，id 从节点读取
+     *
+     * @return id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 新增或修改后的节点，删除事件返回 null
+     *
+     * @return 节点
+     */
+    public T getNode() {
+        return node;
+    }
+}
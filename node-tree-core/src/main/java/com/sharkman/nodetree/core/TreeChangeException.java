@@ -0,0 +1,73 @@
+package com.sharkman.nodetree.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p> Description:变更事件应用失败</p>
+ * <p> 由 {@link TreeSnapshotHolder#apply(java.util.Collection)} 抛出：失败事件之前的事件已应用并发布，
+ * 失败的事件及其后的事件未应用，通过 {@link #getRemaining()} 取得，可修正后重新应用或跳过失败的事件，
+ * 从队列中取出的事件不会丢失。</p>
+ * <p> CreationTime: 2026/10/18 9:20 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public class TreeChangeException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int applied;
+    private final transient TreeSnapshot<?> snapshot;
+    private final transient List<? extends TreeChangeEvent<?>> remaining;
+
+    TreeChangeException(int applied, TreeSnapshot<?> snapshot, List<? extends TreeChangeEvent<?>> remaining,
+                        RuntimeException cause) {
+        super("应用变更事件失败！已应用 " + applied + " 个事件，第 " + (applied + 1) + " 个事件失败：" + cause.getMessage(),
+                cause);
+        this.applied = applied;
+        this.snapshot = snapshot;
+        this.remaining = Collections.unmodifiableList(remaining);
+    }
+
+    /**
+     * 已应用并发布的事件数量
+     *
+     * @return 事件数量
+     */
+    public int getApplied() {
+        return applied;
+    }
+
+    /**
+     * 已应用的事件发布后的快照，没有事件应用时为原快照
+     *
+     * @param <T> 节点类型
+     * @return 快照
+     */
+    @SuppressWarnings("unchecked")
+    public <T> TreeSnapshot<T> getSnapshot() {
+        return (TreeSnapshot<T>) snapshot;
+    }
+
+    /**
+     * 未应用的事件，第一个为失败的事件
+     *
+     * @param <T> 节点类型
+     * @return 事件，只读
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<TreeChangeEvent<T>> getRemaining() {
+        return (List<TreeChangeEvent<T>>) remaining;
+    }
+
+    /**
+     * 失败的事件
+     *
+     * @param <T> 节点类型
+     * @return 事件
+     */
+    public <T> TreeChangeEvent<T> getFailedEvent() {
+        return this.<T>getRemaining().get(0);
+    }
+}
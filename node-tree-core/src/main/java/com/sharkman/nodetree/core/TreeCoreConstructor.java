@@ -1,6 +1,8 @@
 package com.sharkman.nodetree.core;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
 
 /**
  * <p> Description:核心构造器</p>
@@ -11,163 +13,221 @@ import java.util.*;
  * @since 1.0
  */
 final class TreeCoreConstructor {
+    /**
+     * 反向构造时已处理的节点
+     */
+    private static final int DONE = -1;
+
     private TreeCoreConstructor() throws IllegalAccessException {
         throw new IllegalAccessException("非法访问构造函数");
     }
 
-    // 构造节点映射对象
-    private static <T> Map<String, TreeNodeProxy<T>> constructTempMap(List<TreeNodeProxy<T>> treeNodes) {
-        Map<String, TreeNodeProxy<T>> temp = new HashMap<>(treeNodes.size());
-        for (TreeNodeProxy<T> treeNode : treeNodes) {
-            temp.put(treeNode.getId(), treeNode);
-        }
-        return temp;
-    }
-
-    // 拼接树
-    private static <T> void jointTree(Map<String, TreeNodeProxy<T>> temp, Queue<TreeNodeProxy<T>> queue) {
-        while (!queue.isEmpty()) {
-            TreeNodeProxy<T> curNode = queue.poll();
-            // 1. 把自己的父亲节点放入队列
-            if (null == curNode) {
-                throw new NullPointerException("获取数据异常，存在空节点");
-            }
-            TreeNodeProxy<T> parent = temp.get(curNode.getPId());
-            if (null == parent) {
+    /**
+     * 根据权限反向构造树结构
+     * <p>从每个有权限的节点沿父节点链向上标记，已标记的祖先不再重复处理，整体为线性时间。
+     * 标记完成后按节点原始顺序拼接，孩子顺序与 {@link #constructTree(NodeTable)} 一致。</p>
+     *
+     * @param table  节点表
+     * @param ids    有权限的节点 id
+     * @param rootId 子树根节点id
+     * @param <T>    树节点
+     * @return 组织机构根层节点
+     * @throws IllegalStateException 父节点链存在环
+     */
+    static <T> List<T> constructTreeForSpecifyNode(NodeTable<T> table, List<String> ids, String rootId) {
+        // 0 未访问，DONE 已处理，其余为当前所在的第几次上溯
+        int[] marks = new int[table.size()];
+        int walk = 0;
+        for (String id : ids) {
+            int start = table.indexOf(id);
+            if (start < 0 || marks[start] == DONE) {
                 continue;
             }
-            queue.add(parent);
-            // 2. 把自己与父亲节点关联起来
-            List<TreeNodeProxy<T>> curBrothers = parent.getChildren();
-            if (notContainsNode(curBrothers, curNode)) {
-                parent.addChild(curNode);
+            walk++;
+            int current = start;
+            while (current != NodeTable.NO_PARENT && marks[current] != DONE) {
+                if (marks[current] == walk) {
+                    throw new IllegalStateException("构建树失败！节点 " + table.id(current) + " 的父节点链存在环！");
+                }
+                marks[current] = walk;
+                current = table.parent(current);
+            }
+            for (current = start; current != NodeTable.NO_PARENT && marks[current] == walk;
+                 current = table.parent(current)) {
+                marks[current] = DONE;
             }
         }
-    }
-
-    // 构造队列
-    private static <T> Queue<T> initQueue(List<String> ids, Map<String, T> temp) {
-        Queue<T> queue = new ArrayDeque<>();
-        for (String id : ids) {
-            T curUser = temp.get(id);
-            if (null == curUser) {
-                continue;
+        TreeNodeWrapper<T> wrapper = table.wrapper();
+        for (int i = 0; i < table.size(); i++) {
+            int parent = table.parent(i);
+            if (marks[i] == DONE && parent != NodeTable.NO_PARENT) {
+                addChild(table.node(parent), table.node(i), wrapper);
             }
-            queue.add(curUser);
         }
-        return queue;
+        return getRootNode(table, marks, rootId);
     }
 
-    // 获取根节点
-    private static <T> List<T> getRootNode(
-            List<TreeNodeProxy<T>> treeNodes, String rootId, Map<String, TreeNodeProxy<T>> temp) {
-        TreeNodeProxy<T> root = temp.get(rootId);
-        if (null != root) {
-            return Collections.singletonList(temp.get(rootId).getOrigin());
+    // 获取根节点，找不到 rootId 时返回父 id 为 rootId 的已拼接节点
+    private static <T> List<T> getRootNode(NodeTable<T> table, int[] marks, String rootId) {
+        int root = table.indexOf(rootId);
+        if (root >= 0) {
+            return Collections.singletonList(table.node(root));
         }
-        return findAllRoot(treeNodes, rootId);
-    }
-
-    // 获取所有根节点
-    private static <T> List<T> findAllRoot(List<TreeNodeProxy<T>> treeNodes, String rootId) {
+        IntPredicate matcher = table.pidMatcher(rootId);
         List<T> roots = new ArrayList<>();
-        for (TreeNodeProxy<T> treeNode : treeNodes) {
-            if (null != treeNode.getPId() && treeNode.getPId().equals(rootId) &&
-                    null != treeNode.getChildren() && !treeNode.getChildren().isEmpty()) {
-                roots.add(treeNode.getOrigin());
+        for (int i = 0; i < table.size(); i++) {
+            if (marks[i] == DONE && matcher.test(i)) {
+                roots.add(table.node(i));
             }
         }
         return roots;
     }
 
     /**
-     * 不包含节点
+     * 基本构造树，直接在原始对象上拼接，不创建代理节点
+     * <p>按 {@link #constructTree(NodeTable)} 拼接后返回无父节点的节点</p>
+     *
+     * @param vos     树节点对象集合
+     * @param wrapper 节点包装器
+     * @param <T>     树节点
+     * @return 返回无父节点的节点
+     */
+    static <T> List<T> constructTree(List<T> vos, TreeNodeWrapper<T> wrapper) {
+        if (null == vos || vos.isEmpty()) {
+            return Collections.emptyList();
+        }
+        NodeTable<T> table = NodeTable.of(vos, wrapper);
+        constructTree(table);
+        List<T> maybeRoots = new ArrayList<>();
+        for (int i = 0; i < table.size(); i++) {
+            if (table.parent(i) == NodeTable.NO_PARENT) {
+                maybeRoots.add(table.node(i));
+            }
+        }
+        return maybeRoots;
+    }
+
+    /**
+     * 基本构造树，按节点表中已解析的父节点拼接，不再读取 id
      *
-     * @param origin   原始 list
-     * @param treeNode 树节点
-     * @return 是否包含
+     * @param table 节点表
+     * @param <T>   树节点
      */
-    private static <T> boolean notContainsNode(List<TreeNodeProxy<T>> origin, TreeNodeProxy<T> treeNode) {
-        for (TreeNodeProxy<T> node : origin) {
-            if (node.getId().equals(treeNode.getId())) {
-                return false;
+    static <T> void constructTree(NodeTable<T> table) {
+        TreeNodeWrapper<T> wrapper = table.wrapper();
+        for (int i = 0; i < table.size(); i++) {
+            int parent = table.parent(i);
+            if (parent != NodeTable.NO_PARENT) {
+                addChild(table.node(parent), table.node(i), wrapper);
             }
         }
-        return true;
     }
 
     /**
-     * 构造树核心方法
+     * 并行构造树，结果与 {@link #constructTree(List, TreeNodeWrapper)} 一致，孩子顺序与节点原始顺序一致
+     * <p>读取 id、建立索引、解析父节点、按父节点分组与拼接均在线程池中并行执行，
+     * 每个父节点的孩子集合只由一个任务写入。包装器须线程安全。</p>
      *
-     * @param vos 树节点对象集合
-     * @param <T> 树节点
+     * @param vos     树节点对象集合
+     * @param wrapper 节点包装器
+     * @param pool    线程池
+     * @param <T>     树节点
      * @return 返回无父节点的节点
      */
-    static <T> Map<String, TreeNodeProxy<T>> constructTreeForTemp(List<TreeNodeProxy<T>> vos) {
+    static <T> List<T> constructTree(List<T> vos, TreeNodeWrapper<T> wrapper, ForkJoinPool pool) {
         if (null == vos || vos.isEmpty()) {
-            return Collections.emptyMap();
-        }
-        // 可能为根节点的
-        Map<String, TreeNodeProxy<T>> temp = new HashMap<>(vos.size());
-        // 先把所有节点都糊上
-        for (TreeNodeProxy<T> vo : vos) {
-            temp.put(vo.getId(), vo);
+            return Collections.emptyList();
         }
-        // 构造树
-        for (TreeNodeProxy<T> vo : vos) {
-            TreeNodeProxy<T> father = temp.get(vo.getPId());
-            // 没有父节点的，则为疑似父节点
-            if (null == father || father == vo) {
-                continue;
+        NodeTable<T> table = NodeTable.of(vos, wrapper, pool);
+        constructTree(table, pool);
+        List<T> maybeRoots = new ArrayList<>();
+        for (int i = 0; i < table.size(); i++) {
+            if (table.parent(i) == NodeTable.NO_PARENT) {
+                maybeRoots.add(table.node(i));
             }
-            father.addChild(vo);
         }
-        return temp;
+        return maybeRoots;
     }
 
     /**
-     * 根据权限反向构造树结构
+     * 并行构造树，按节点表中已解析的父节点拼接，每个父节点的孩子集合只由一个任务写入
      *
-     * @param treeNodes 组织机构树
-     * @param ids       树id
-     * @param rootId    子树根节点id
-     * @return 组织机构根层节点
+     * @param table 节点表
+     * @param pool  线程池
+     * @param <T>   树节点
      */
-    static <T> List<T> constructTreeForSpecifyNode(
-            List<TreeNodeProxy<T>> treeNodes, List<String> ids, String rootId) {
-        // 构造节点映射对象
-        Map<String, TreeNodeProxy<T>> temp = constructTempMap(treeNodes);
-        // 构造队列
-        Queue<TreeNodeProxy<T>> queue = initQueue(ids, temp);
-        // 拼接树
-        jointTree(temp, queue);
-        // 获取根节点
-        return getRootNode(treeNodes, rootId, temp);
+    static <T> void constructTree(NodeTable<T> table, ForkJoinPool pool) {
+        TreeNodeWrapper<T> wrapper = table.wrapper();
+        ChildIndex childIndex = ChildIndex.of(table.parents(), pool);
+        ParallelTasks.forEach(pool, table.size(), p -> {
+            int count = childIndex.childCount(p);
+            if (count == 0) {
+                return;
+            }
+            T parent = table.node(p);
+            List<T> children = wrapper.getChildren(parent);
+            if (null == children) {
+                children = new ArrayList<>(count);
+                wrapper.setChildren(children, parent);
+            }
+            for (int k = 0; k < count; k++) {
+                children.add(table.node(childIndex.child(p, k)));
+            }
+        });
     }
 
     /**
-     * 基本构造树
+     * 只拼接以 root 为根的子树，按层向下遍历，其余节点不做修改
+     * <p>每个节点只有一个父节点，遍历中只可能因父节点链成环回到 root，此时不再把 root 挂为孩子。
+     * 已展开的节点不再重复拼接，多棵子树重叠时每个孩子只挂一次。</p>
      *
-     * @param vos 树节点对象集合
-     * @param <T> 树节点
-     * @return 返回无父节点的节点
+     * @param table      节点表
+     * @param childIndex 孩子节点索引
+     * @param root       子树根节点下标
+     * @param expanded   各节点的孩子是否已拼接，多次调用时共用
+     * @param <T>        树节点
      */
-    static <T> List<TreeNodeProxy<T>> constructTree(List<TreeNodeProxy<T>> vos) {
-        if (null == vos || vos.isEmpty()) {
-            return Collections.emptyList();
-        }
-        // 可能为根节点的
-        List<TreeNodeProxy<T>> maybeRoots = new ArrayList<>();
-        Map<String, TreeNodeProxy<T>> temp = constructTreeForTemp(vos);
-        // 构造树
-        for (TreeNodeProxy<T> vo : vos) {
-            TreeNodeProxy<T> father = temp.get(vo.getPId());
-            // 没有父节点的，则为疑似父节点
-            if (null == father || father == vo) {
-                maybeRoots.add(vo);
+    static <T> void constructSubtree(NodeTable<T> table, ChildIndex childIndex, int root, boolean[] expanded) {
+        TreeNodeWrapper<T> wrapper = table.wrapper();
+        int[] queue = new int[16];
+        int tail = 0;
+        queue[tail++] = root;
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            if (expanded[current]) {
+                continue;
+            }
+            expanded[current] = true;
+            T parent = table.node(current);
+            int count = childIndex.childCount(current);
+            for (int k = 0; k < count; k++) {
+                int child = childIndex.child(current, k);
+                if (child == root) {
+                    continue;
+                }
+                addChild(parent, table.node(child), wrapper);
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, tail << 1);
+                }
+                queue[tail++] = child;
             }
         }
-        return maybeRoots;
+    }
+
+    /**
+     * 将子节点加入父节点的孩子集合，孩子集合为空时创建
+     *
+     * @param parent  父节点
+     * @param child   子节点
+     * @param wrapper 节点包装器
+     */
+    static <T> void addChild(T parent, T child, TreeNodeWrapper<T> wrapper) {
+        List<T> children = wrapper.getChildren(parent);
+        if (null == children) {
+            children = new ArrayList<>();
+            wrapper.setChildren(children, parent);
+        }
+        children.add(child);
     }
 
     /**
@@ -0,0 +1,288 @@
+package com.sharkman.nodetree.core;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p> Description:只读树索引</p>
+ * <p> 以数组保存树结构：父节点下标、孩子节点下标（压缩行形式，所有孩子存放在同一个连续数组中）及深度，
+ * 除 {@link #attachChildren()} 外不修改节点对象，也不为每个父节点创建孩子集合，适合读多写少、频繁查询的树。
+ * 节点以其在原始列表中的下标标识，id 重复时以后出现的节点为准。</p>
+ * <p> 构造完成后不可修改，可在多线程间共享。</p>
+ * <p> CreationTime: 2026/10/17 6:05 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class TreeIndex<T> {
+    /**
+     * 无父节点，或节点不存在
+     */
+    public static final int NONE = -1;
+
+    private final NodeTable<T> table;
+    private final ChildIndex childIndex;
+    private final int[] roots;
+    private final int[] depths;
+
+    private TreeIndex(NodeTable<T> table, ChildIndex childIndex) {
+        this.table = table;
+        this.childIndex = childIndex;
+        int rootCount = 0;
+        for (int i = 0; i < table.size(); i++) {
+            if (table.parent(i) == NodeTable.NO_PARENT) {
+                rootCount++;
+            }
+        }
+        this.roots = new int[rootCount];
+        for (int i = 0, k = 0; i < table.size(); i++) {
+            if (table.parent(i) == NodeTable.NO_PARENT) {
+                roots[k++] = i;
+            }
+        }
+        this.depths = computeDepths();
+    }
+
+    /**
+     * 构造树索引，包装器根据第一个节点获取
+     *
+     * @param nodes 所有节点数据
+     * @param <T>   节点类型
+     * @return 树索引
+     */
+    public static <T> TreeIndex<T> of(List<T> nodes) {
+        if (null == nodes || nodes.isEmpty()) {
+            return of(Collections.emptyList(), null);
+        }
+        return of(nodes, TreeNodeProxy.createNodeWrapper(nodes.get(0)));
+    }
+
+    /**
+     * 构造树索引
+     *
+     * @param nodes   所有节点数据
+     * @param wrapper 节点包装器，只用于读取 id 与父 id
+     * @param <T>     节点类型
+     * @return 树索引
+     */
+    public static <T> TreeIndex<T> of(List<T> nodes, TreeNodeWrapper<T> wrapper) {
+        NodeTable<T> table = NodeTable.of(null == nodes ? Collections.emptyList() : nodes, wrapper);
+        return new TreeIndex<>(table, ChildIndex.of(table.parents()));
+    }
+
+    /**
+     * 并行构造树索引，结果与 {@link #of(List, TreeNodeWrapper)} 一致，包装器须线程安全
+     *
+     * @param nodes   所有节点数据
+     * @param wrapper 节点包装器，只用于读取 id 与父 id
+     * @param pool    线程池
+     * @param <T>     节点类型
+     * @return 树索引
+     */
+    public static <T> TreeIndex<T> of(List<T> nodes, TreeNodeWrapper<T> wrapper, ForkJoinPool pool) {
+        NodeTable<T> table = NodeTable.of(null == nodes ? Collections.emptyList() : nodes, wrapper, pool);
+        return new TreeIndex<>(table, ChildIndex.of(table.parents(), pool));
+    }
+
+    // 自根节点逐层计算深度，不在任何根节点之下的节点（父节点链成环）深度为 NONE
+    private int[] computeDepths() {
+        int size = table.size();
+        int[] result = new int[size];
+        Arrays.fill(result, NONE);
+        int[] queue = new int[size];
+        int tail = 0;
+        for (int root : roots) {
+            result[root] = 0;
+            queue[tail++] = root;
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            int count = childIndex.childCount(current);
+            for (int k = 0; k < count; k++) {
+                int child = childIndex.child(current, k);
+                result[child] = result[current] + 1;
+                queue[tail++] = child;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * 获取节点
+     *
+     * @param i 节点下标
+     * @return 节点
+     */
+    public T node(int i) {
+        return table.node(i);
+    }
+
+    /**
+     * 根据 id 查找节点下标
+     *
+     * @param id 节点 id
+     * @return 节点下标，未找到返回 {@link #NONE}
+     */
+    public int indexOf(String id) {
+        return table.indexOf(id);
+    }
+
+    /**
+     * 父节点下标
+     *
+     * @param i 节点下标
+     * @return 父节点下标，无父节点返回 {@link #NONE}
+     */
+    public int parent(int i) {
+        return table.parent(i);
+    }
+
+    /**
+     * 孩子数量
+     *
+     * @param i 节点下标
+     * @return 孩子数量
+     */
+    public int childCount(int i) {
+        return childIndex.childCount(i);
+    }
+
+    /**
+     * 第 k 个孩子的下标，孩子按原始列表顺序排列
+     *
+     * @param i 节点下标
+     * @param k 孩子序号
+     * @return 孩子下标
+     */
+    public int child(int i, int k) {
+        if (k < 0 || k >= childIndex.childCount(i)) {
+            throw new IndexOutOfBoundsException("孩子序号越界：" + k);
+        }
+        return childIndex.child(i, k);
+    }
+
+    /**
+     * 孩子节点，返回只读视图，不复制
+     *
+     * @param i 节点下标
+     * @return 孩子节点
+     */
+    public List<T> children(int i) {
+        return new NodeView(i);
+    }
+
+    /**
+     * 节点深度，根节点为 0
+     *
+     * @param i 节点下标
+     * @return 深度，父节点链成环、无法到达根节点时返回 {@link #NONE}
+     */
+    public int depth(int i) {
+        return depths[i];
+    }
+
+    /**
+     * 无父节点的节点数量
+     *
+     * @return 根节点数量
+     */
+    public int rootCount() {
+        return roots.length;
+    }
+
+    /**
+     * 第 k 个根节点的下标，根节点按原始列表顺序排列
+     *
+     * @param k 根节点序号
+     * @return 根节点下标
+     */
+    public int root(int k) {
+        return roots[k];
+    }
+
+    /**
+     * 无父节点的节点，返回只读视图，结果与 {@link TreeUtil#buildTree(List)} 一致
+     *
+     * @return 根节点
+     */
+    public List<T> roots() {
+        return new NodeView(NONE);
+    }
+
+    /**
+     * 父 id 为指定值的节点，优先取无父节点的节点，没有时取所有父 id 为指定值的节点，
+     * 选取方式与 {@link TreeUtil#buildTreeOfRootPIdForList(List, String)} 一致
+     *
+     * @param pid 父 id，可为 null
+     * @return 节点，没有时返回空集合
+     * @since 2.1.0
+     */
+    public List<T> rootsOfPid(String pid) {
+        if (table.size() == 0) {
+            return Collections.emptyList();
+        }
+        return TreeUtil.selectRoots(table, table.pidMatcher(pid));
+    }
+
+    /**
+     * 把索引中的父子关系写入节点对象，结果与 {@link TreeUtil#buildTree(List)} 一致。
+     * 没有孩子集合的节点按孩子数量创建 {@link ArrayList}，已有孩子集合的节点追加孩子。
+     * 写入的孩子集合可以修改，不引用索引，索引不再使用时可被回收
+     *
+     * @since 2.1.0
+     */
+    public void attachChildren() {
+        TreeNodeWrapper<T> wrapper = table.wrapper();
+        for (int i = 0; i < table.size(); i++) {
+            int count = childIndex.childCount(i);
+            if (count == 0) {
+                continue;
+            }
+            T parent = table.node(i);
+            List<T> children = wrapper.getChildren(parent);
+            if (null == children) {
+                children = new ArrayList<>(count);
+                wrapper.setChildren(children, parent);
+            }
+            for (int k = 0; k < count; k++) {
+                children.add(table.node(childIndex.child(i, k)));
+            }
+        }
+    }
+
+    /**
+     * 下标列表的只读视图，parent 为 {@link #NONE} 时表示根节点
+     */
+    private final class NodeView extends AbstractList<T> implements RandomAccess {
+        private final int parent;
+
+        NodeView(int parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public T get(int k) {
+            return table.node(parent == NONE ? root(k) : child(parent, k));
+        }
+
+        @Override
+        public int size() {
+            return parent == NONE ? roots.length : childIndex.childCount(parent);
+        }
+    }
+}
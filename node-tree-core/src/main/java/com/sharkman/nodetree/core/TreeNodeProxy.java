@@ -16,10 +16,12 @@ import java.util.stream.Collectors;
 public class TreeNodeProxy<T> {
     private final T origin;
     private final TreeNodeWrapper<T> wrapper;
+    private final String id;
+    private final String pid;
     private List<TreeNodeProxy<T>> children;
 
     /**
-     * 构造函数
+     * 构造函数，构造时读取并缓存 id 与父 id
      *
      * @param origin  代理对象
      * @param wrapper 包装器
@@ -27,6 +29,8 @@ public class TreeNodeProxy<T> {
     public TreeNodeProxy(T origin, TreeNodeWrapper<T> wrapper) {
         this.wrapper = wrapper;
         this.origin = origin;
+        this.id = wrapper.getId(origin);
+        this.pid = wrapper.getPId(origin);
     }
 
     /**
@@ -77,20 +81,14 @@ public class TreeNodeProxy<T> {
     }
 
     /**
-     * 创建包装器
+     * 创建包装器，同一类型只解析一次，见 {@link TreeNodeWrapperRegistry}
      *
      * @param t   节点
      * @param <T> 节点对象
      * @return 包装器
      */
     public static <T> TreeNodeWrapper<T> createNodeWrapper(T t) {
-        TreeNodeWrapper<T> wrapper;
-        if (t instanceof Treeable) {
-            wrapper = new TreeNodeWrapperInterface<>();
-        } else {
-            wrapper = TreeNodeWrapperAnnotation.from(t);
-        }
-        return wrapper;
+        return TreeNodeWrapperRegistry.getWrapper(t);
     }
 
     /**
@@ -99,7 +97,7 @@ public class TreeNodeProxy<T> {
      * @return id
      */
     public String getId() {
-        return wrapper.getId(origin);
+        return id;
     }
 
     /**
@@ -108,7 +106,7 @@ public class TreeNodeProxy<T> {
      * @return pid
      */
     public String getPId() {
-        return wrapper.getPId(origin);
+        return pid;
     }
 
     /**
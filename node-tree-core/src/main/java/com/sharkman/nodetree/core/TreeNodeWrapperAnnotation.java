@@ -7,7 +7,9 @@ import com.sharkman.nodetree.annotation.NodePID;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 import static com.sharkman.nodetree.core.ReflectUtil.*;
 
@@ -20,25 +22,63 @@ import static com.sharkman.nodetree.core.ReflectUtil.*;
  * @version 1.0
  * @since 1.0
  */
-final class TreeNodeWrapperAnnotation<T> implements TreeNodeWrapper<T> {
-    private final Method nodeIdGetter;
-    private final Method pidGetter;
-    private final Method childrenGetter;
-    private final Method childrenSetter;
+final class TreeNodeWrapperAnnotation<T> implements LongKeyTreeNodeWrapper<T> {
+    private final Function<T, Object> nodeIdGetter;
+    private final Function<T, Object> pidGetter;
+    private final Function<T, Object> childrenGetter;
+    private final BiConsumer<T, Object> childrenSetter;
+
+    /**
+     * id 与父 id 均为整数类型时的 long 访问器，否则为 null
+     */
+    private final ToLongFunction<T> nodeIdLongGetter;
+    private final ToLongFunction<T> pidLongGetter;
+    private final boolean idPrimitive;
+    private final boolean pidPrimitive;
 
 
     private TreeNodeWrapperAnnotation(Method nodeIdGetter,
                                       Method pidGetter,
                                       Method childrenGetter,
                                       Method childrenSetter) {
-        this.nodeIdGetter = nodeIdGetter;
-        this.pidGetter = pidGetter;
-        this.childrenGetter = childrenGetter;
-        this.childrenSetter = childrenSetter;
+        this.nodeIdGetter = AccessorFactory.getter(nodeIdGetter);
+        this.pidGetter = AccessorFactory.getter(pidGetter);
+        this.childrenGetter = AccessorFactory.getter(childrenGetter);
+        this.childrenSetter = AccessorFactory.setter(childrenSetter);
+        this.idPrimitive = nodeIdGetter.getReturnType().isPrimitive();
+        this.pidPrimitive = pidGetter.getReturnType().isPrimitive();
+        if (isIntegral(nodeIdGetter.getReturnType()) && isIntegral(pidGetter.getReturnType())) {
+            this.nodeIdLongGetter = longAccessor(nodeIdGetter, this.nodeIdGetter);
+            this.pidLongGetter = longAccessor(pidGetter, this.pidGetter);
+        } else {
+            this.nodeIdLongGetter = null;
+            this.pidLongGetter = null;
+        }
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == long.class || type == int.class || type == Long.class || type == Integer.class;
+    }
+
+    private static <T> ToLongFunction<T> longAccessor(Method getter, Function<T, Object> boxedGetter) {
+        if (getter.getReturnType().isPrimitive()) {
+            return AccessorFactory.longGetter(getter);
+        }
+        return targetObj -> ((Number) boxedGetter.apply(targetObj)).longValue();
     }
 
     static <T> TreeNodeWrapperAnnotation<T> from(T obj) {
-        Class<?> clazz = obj.getClass();
+        return from(obj.getClass());
+    }
+
+    /**
+     * 根据类上的注解构造包装器
+     *
+     * @param clazz 节点类
+     * @param <T>   节点类型
+     * @return 包装器
+     */
+    static <T> TreeNodeWrapperAnnotation<T> from(Class<?> clazz) {
         Field[] fields = clazz.getDeclaredFields();
 
         Field field = ReflectUtil.findColumnByAnnotation(fields, NodeID.class);
@@ -89,9 +129,8 @@ final class TreeNodeWrapperAnnotation<T> implements TreeNodeWrapper<T> {
      */
     @Override
     public String getId(T targetObj) {
-        return Optional.ofNullable(methodInvoke(nodeIdGetter, targetObj))
-                .map(Object::toString)
-                .orElse(null);
+        Object id = nodeIdGetter.apply(targetObj);
+        return null == id ? null : id.toString();
     }
 
     /**
@@ -102,9 +141,8 @@ final class TreeNodeWrapperAnnotation<T> implements TreeNodeWrapper<T> {
      */
     @Override
     public String getPId(T targetObj) {
-        return Optional.ofNullable(methodInvoke(pidGetter, targetObj))
-                .map(Object::toString)
-                .orElse(null);
+        Object pid = pidGetter.apply(targetObj);
+        return null == pid ? null : pid.toString();
     }
 
     /**
@@ -115,7 +153,7 @@ final class TreeNodeWrapperAnnotation<T> implements TreeNodeWrapper<T> {
      */
     @Override
     public List<T> getChildren(T targetObj) {
-        Object children = methodInvoke(childrenGetter, targetObj);
+        Object children = childrenGetter.apply(targetObj);
         if (null == children) {
             return null;
         }
@@ -136,6 +174,31 @@ final class TreeNodeWrapperAnnotation<T> implements TreeNodeWrapper<T> {
      */
     @Override
     public void setChildren(List<T> children, T targetObj) {
-        methodInvoke(childrenSetter, targetObj, children);
+        childrenSetter.accept(targetObj, children);
+    }
+
+    @Override
+    public boolean isLongKey() {
+        return null != nodeIdLongGetter;
+    }
+
+    @Override
+    public boolean hasId(T targetObj) {
+        return idPrimitive || null != nodeIdGetter.apply(targetObj);
+    }
+
+    @Override
+    public long getLongId(T targetObj) {
+        return nodeIdLongGetter.applyAsLong(targetObj);
+    }
+
+    @Override
+    public boolean hasPId(T targetObj) {
+        return pidPrimitive || null != pidGetter.apply(targetObj);
+    }
+
+    @Override
+    public long getLongPId(T targetObj) {
+        return pidLongGetter.applyAsLong(targetObj);
     }
 }
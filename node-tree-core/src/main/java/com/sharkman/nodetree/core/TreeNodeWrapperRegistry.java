@@ -0,0 +1,131 @@
+package com.sharkman.nodetree.core;
+
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p> Description:树节点包装器注册表</p>
+ * <p> 每个节点类型的包装器只解析一次，之后直接从 {@link ClassValue} 中获取；
+ * 也可以为指定类型预先注册自定义包装器，注册的包装器优先于编译期生成的包装器、接口与注解解析。</p>
+ * <p> CreationTime: 2026/10/17 10:05 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class TreeNodeWrapperRegistry {
+    private static final TreeNodeWrapper<?> INTERFACE_WRAPPER = new TreeNodeWrapperInterface<>();
+
+    private static final Map<Class<?>, TreeNodeWrapper<?>> CUSTOM_WRAPPERS = new ConcurrentHashMap<>();
+
+    private static final ClassValue<TreeNodeWrapper<?>> WRAPPERS = new ClassValue<TreeNodeWrapper<?>>() {
+        @Override
+        protected TreeNodeWrapper<?> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private TreeNodeWrapperRegistry() throws IllegalAccessException {
+        throw new IllegalAccessException("非法访问构造函数");
+    }
+
+    /**
+     * 注册自定义包装器，已解析的包装器将被替换
+     *
+     * @param type    节点类型
+     * @param wrapper 包装器
+     * @param <T>     节点类型
+     */
+    public static <T> void register(Class<T> type, TreeNodeWrapper<T> wrapper) {
+        if (null == type || null == wrapper) {
+            throw new IllegalArgumentException("节点类型及包装器不能为空");
+        }
+        CUSTOM_WRAPPERS.put(type, wrapper);
+        WRAPPERS.remove(type);
+    }
+
+    /**
+     * 移除自定义包装器，下次获取时重新解析
+     *
+     * @param type 节点类型
+     */
+    public static void unregister(Class<?> type) {
+        CUSTOM_WRAPPERS.remove(type);
+        WRAPPERS.remove(type);
+    }
+
+    /**
+     * 获取节点类型对应的包装器
+     *
+     * @param type 节点类型
+     * @param <T>  节点类型
+     * @return 包装器
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TreeNodeWrapper<T> getWrapper(Class<? extends T> type) {
+        return (TreeNodeWrapper<T>) WRAPPERS.get(type);
+    }
+
+    /**
+     * 获取节点对应的包装器
+     *
+     * @param node 节点
+     * @param <T>  节点类型
+     * @return 包装器
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TreeNodeWrapper<T> getWrapper(T node) {
+        if (null == node) {
+            throw new IllegalArgumentException("节点不能为空");
+        }
+        return getWrapper((Class<? extends T>) node.getClass());
+    }
+
+    /**
+     * 解析包装器：自定义 > 编译期生成 > 接口 > 注解
+     *
+     * @param type 节点类型
+     * @return 包装器
+     */
+    private static TreeNodeWrapper<?> resolve(Class<?> type) {
+        TreeNodeWrapper<?> wrapper = CUSTOM_WRAPPERS.get(type);
+        if (null != wrapper) {
+            return wrapper;
+        }
+        wrapper = findGenerated(type);
+        if (null != wrapper) {
+            return wrapper;
+        }
+        if (Treeable.class.isAssignableFrom(type)) {
+            return INTERFACE_WRAPPER;
+        }
+        return TreeNodeWrapperAnnotation.from(type);
+    }
+
+    /**
+     * 从节点类的类加载器中查找编译期生成的包装器
+     *
+     * @param type 节点类型
+     * @return 包装器，未找到返回null
+     */
+    @SuppressWarnings("rawtypes")
+    private static TreeNodeWrapper<?> findGenerated(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        if (null == loader) {
+            return null;
+        }
+        try {
+            for (GeneratedTreeNodeWrapper wrapper : ServiceLoader.load(GeneratedTreeNodeWrapper.class, loader)) {
+                if (wrapper.getNodeType() == type) {
+                    return wrapper;
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            // 索引损坏时退回反射解析
+            return null;
+        }
+        return null;
+    }
+}
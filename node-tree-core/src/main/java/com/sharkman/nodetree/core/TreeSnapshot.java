@@ -0,0 +1,81 @@
+package com.sharkman.nodetree.core;
+
+import java.util.List;
+
+/**
+ * <p> Description:不可修改的树快照</p>
+ * <p> 带版本号的 {@link PersistentTree}，节点数据包装在 {@link PersistentTree.Node} 中，孩子集合为只读数组，
+ * 构造完成后不再修改，可被任意多个读线程共享，无需复制，也不调用 {@link TreeNodeWrapper#setChildren(List, Object)}。
+ * 父子关系按 id 与父 id 确定，与 {@link TreeUtil#buildTree(List)} 一致，父节点链成环的节点不在树中。</p>
+ * <p> 由 {@link TreeSnapshotHolder} 发布，新快照只复制被修改节点到根节点的路径，其余子树与 id 索引同旧快照共享。</p>
+ * <p> CreationTime: 2026/10/17 10:40 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class TreeSnapshot<T> {
+    private final long version;
+    private final PersistentTree<T> tree;
+
+    TreeSnapshot(long version, PersistentTree<T> tree) {
+        this.version = version;
+        this.tree = tree;
+    }
+
+    /**
+     * 版本号，每次发布递增
+     *
+     * @return 版本号
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * 快照对应的树，可在其上继续修改得到新版本，不影响本快照
+     *
+     * @return 树
+     */
+    public PersistentTree<T> tree() {
+        return tree;
+    }
+
+    /**
+     * 节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return tree.size();
+    }
+
+    /**
+     * 根节点，只读
+     *
+     * @return 根节点
+     */
+    public List<PersistentTree.Node<T>> roots() {
+        return tree.roots();
+    }
+
+    /**
+     * 根据 id 查找节点，自根节点逐层定位，开销与深度相关
+     *
+     * @param id 节点 id
+     * @return 节点，不存在时返回 null
+     */
+    public PersistentTree.Node<T> find(String id) {
+        return tree.find(id);
+    }
+
+    /**
+     * 根据 id 获取节点数据
+     *
+     * @param id 节点 id
+     * @return 节点数据，不存在时返回 null
+     */
+    public T get(String id) {
+        return tree.get(id);
+    }
+}
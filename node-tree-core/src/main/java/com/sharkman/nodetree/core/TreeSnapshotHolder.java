@@ -0,0 +1,117 @@
+package com.sharkman.nodetree.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p> Description:树快照持有者</p>
+ * <p> 以 {@link AtomicReference} 发布不可修改的 {@link TreeSnapshot}，读线程通过 {@link #current()} 无锁取得当前版本，
+ * 同一版本被所有读线程共享；写操作之间互斥，每次发布版本号加一。</p>
+ * <p> 快照基于 {@link PersistentTree}，替换、新增、删除节点及父 id 改变都只复制涉及节点到根节点的路径，
+ * 只有 {@link #publish(List)} 重新构造整棵树。</p>
+ * <p> CreationTime: 2026/10/17 10:40 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class TreeSnapshotHolder<T> {
+    private final AtomicReference<TreeSnapshot<T>> current;
+
+    private TreeSnapshotHolder(PersistentTree<T> tree) {
+        this.current = new AtomicReference<>(new TreeSnapshot<>(0, tree));
+    }
+
+    /**
+     * 创建持有者，包装器根据第一个节点获取
+     *
+     * @param nodes 初始节点，可为 null
+     * @param <T>   节点类型
+     * @return 持有者，初始版本号为 0
+     */
+    public static <T> TreeSnapshotHolder<T> of(List<T> nodes) {
+        return new TreeSnapshotHolder<>(PersistentTree.of(nodes));
+    }
+
+    /**
+     * 创建持有者
+     *
+     * @param nodes   初始节点，可为 null
+     * @param wrapper 节点包装器，只用于读取 id 与父 id
+     * @param <T>     节点类型
+     * @return 持有者，初始版本号为 0
+     */
+    public static <T> TreeSnapshotHolder<T> of(List<T> nodes, TreeNodeWrapper<T> wrapper) {
+        return new TreeSnapshotHolder<>(PersistentTree.of(nodes, wrapper));
+    }
+
+    /**
+     * 当前快照，无锁读取
+     *
+     * @return 当前快照
+     */
+    public TreeSnapshot<T> current() {
+        return current.get();
+    }
+
+    /**
+     * 以新的节点列表重新构造并发布
+     *
+     * @param nodes 所有节点数据
+     * @return 发布的快照
+     */
+    public synchronized TreeSnapshot<T> publish(List<T> nodes) {
+        TreeSnapshot<T> snapshot = current.get();
+        TreeNodeWrapper<T> wrapper = snapshot.tree().wrapper();
+        PersistentTree<T> tree = null == wrapper ? PersistentTree.of(nodes) : PersistentTree.of(nodes, wrapper);
+        return set(snapshot.version() + 1, tree);
+    }
+
+    /**
+     * 替换一个节点的数据并发布，只复制该节点到根节点的路径
+     *
+     * @param node 新的节点数据，以 id 匹配，不存在时新增
+     * @return 发布的快照
+     */
+    public synchronized TreeSnapshot<T> update(T node) {
+        return apply(Collections.singletonList(TreeChangeEvent.update(node)));
+    }
+
+    /**
+     * 按顺序以 {@link PersistentTree#apply(TreeChangeEvent)} 应用一批事件，全部应用后发布一次；
+     * 某个事件失败时发布之前已应用的事件，并抛出 {@link TreeChangeException}，其中带有失败的事件及其后未应用的事件
+     *
+     * @param events 事件
+     * @return 发布的快照，没有事件时返回当前快照
+     * @throws TreeChangeException 某个事件应用失败
+     */
+    public synchronized TreeSnapshot<T> apply(Collection<? extends TreeChangeEvent<T>> events) {
+        TreeSnapshot<T> snapshot = current.get();
+        if (null == events || events.isEmpty()) {
+            return snapshot;
+        }
+        PersistentTree<T> working = snapshot.tree();
+        int applied = 0;
+        for (TreeChangeEvent<T> event : events) {
+            try {
+                working = working.apply(event);
+            } catch (RuntimeException e) {
+                TreeSnapshot<T> published = applied == 0 ? snapshot : set(snapshot.version() + 1, working);
+                List<TreeChangeEvent<T>> batch = new ArrayList<>(events);
+                List<TreeChangeEvent<T>> remaining = new ArrayList<>(batch.subList(applied, batch.size()));
+                throw new TreeChangeException(applied, published, remaining, e);
+            }
+            applied++;
+        }
+        return set(snapshot.version() + 1, working);
+    }
+
+    private TreeSnapshot<T> set(long version, PersistentTree<T> tree) {
+        TreeSnapshot<T> snapshot = new TreeSnapshot<>(version, tree);
+        current.set(snapshot);
+        return snapshot;
+    }
+}
@@ -1,13 +1,12 @@
 package com.sharkman.nodetree.core;
 
 import lombok.NonNull;
-import org.apache.commons.collections4.CollectionUtils;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-
-import static com.sharkman.nodetree.core.TreeCoreConstructor.constructTreeForTemp;
 
 /**
  * <p> Description:树工具类，利用 id，pid 生成父子形式的树结构</p>
@@ -19,6 +18,11 @@ import static com.sharkman.nodetree.core.TreeCoreConstructor.constructTreeForTem
  * @since 1.0
  */
 public final class TreeUtil {
+    /**
+     * 并行构造的最少节点数量，更少时并行的调度开销大于收益
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
     private TreeUtil() throws IllegalAccessException {
         throw new IllegalAccessException("非法访问构造函数");
     }
@@ -44,26 +48,37 @@ public final class TreeUtil {
      * 构建树形结构，并返回所有根节点
      * <p>传入一个 Predicate 对想来判别根节点，若节点满足此条件，则设置为根节点。</p>
      *
-     * @param nodes     所有节点数据
-     * @param predicate 判别式，为true则为根节点
+     * @param table     节点表
+     * @param predicate 以节点下标判别，为true则为根节点
+     * @return 所有根节点
+     */
+    static <T> List<T> buildTreeForList(NodeTable<T> table, IntPredicate predicate) {
+        TreeCoreConstructor.constructTree(table);
+        return selectRoots(table, predicate);
+    }
+
+    /**
+     * 从已拼接的节点表中选取根节点：优先取满足条件且无父节点的节点，没有时取所有满足条件的节点
+     *
+     * @param table     节点表
+     * @param predicate 以节点下标判别，为true则为根节点
      * @return 所有根节点
      */
-    static <T> List<T> buildTreeForListProxy(
-            List<TreeNodeProxy<T>> nodes, @NonNull Predicate<TreeNodeProxy<T>> predicate) {
-        List<TreeNodeProxy<T>> maybeRoots = TreeCoreConstructor.constructTree(nodes);
+    static <T> List<T> selectRoots(NodeTable<T> table, IntPredicate predicate) {
         // 从疑似父节点中查找真正的父节点
         List<T> roots = new ArrayList<>();
-        for (TreeNodeProxy<T> vo : maybeRoots) {
-            if (predicate.test(vo)) {
-                roots.add(vo.getOrigin());
+        for (int i = 0; i < table.size(); i++) {
+            if (table.parent(i) == NodeTable.NO_PARENT && predicate.test(i)) {
+                roots.add(table.node(i));
             }
         }
         // 没找到，可能为子树，整体过滤
-        if (CollectionUtils.isEmpty(roots)) {
-            roots = nodes.stream()
-                    .filter(predicate)
-                    .map(TreeNodeProxy::getOrigin)
-                    .collect(Collectors.toList());
+        if (roots.isEmpty()) {
+            for (int i = 0; i < table.size(); i++) {
+                if (predicate.test(i)) {
+                    roots.add(table.node(i));
+                }
+            }
         }
         return roots;
     }
@@ -77,7 +92,11 @@ public final class TreeUtil {
      * @return 所有根节点
      */
     public static <T> List<T> buildTreeForList(List<T> vos, @NonNull Predicate<T> predicate) {
-        return buildTreeForListProxy(TreeNodeProxy.ofList(vos), n -> predicate.test(n.getOrigin()));
+        if (null == vos || vos.isEmpty()) {
+            return Collections.emptyList();
+        }
+        NodeTable<T> table = NodeTable.of(vos, TreeNodeProxy.createNodeWrapper(vos.get(0)));
+        return buildTreeForList(table, i -> predicate.test(table.node(i)));
     }
 
     /**
@@ -91,7 +110,129 @@ public final class TreeUtil {
         if (null == id) {
             throw new IllegalArgumentException("构建树失败！根节点id不能为空！");
         }
-        return constructTreeForTemp(TreeNodeProxy.ofList(vos)).get(id).getOrigin();
+        T root = null;
+        if (null != vos && !vos.isEmpty()) {
+            NodeTable<T> table = NodeTable.of(vos, TreeNodeProxy.createNodeWrapper(vos.get(0)));
+            TreeCoreConstructor.constructTree(table);
+            int index = table.indexOf(id);
+            root = index < 0 ? null : table.node(index);
+        }
+        if (null == root) {
+            throw new NullPointerException("构建树失败！未找到id为 " + id + " 的根节点！");
+        }
+        return root;
+    }
+
+    /**
+     * 构建以指定节点为根的子树，并返回根节点
+     * <p>与 {@link #buildTreeOfRootId(List, String)} 不同，只拼接根节点的后代，其余节点的孩子集合不做修改，
+     * 拼接的工作量与子树大小成正比。</p>
+     *
+     * @param vos 所有节点数据
+     * @param id  指定根节点的id，不可为null
+     * @return 根节点
+     */
+    public static <T> T buildSubtreeOfRootId(List<T> vos, String id) {
+        if (null == id) {
+            throw new IllegalArgumentException("构建树失败！根节点id不能为空！");
+        }
+        T root = null;
+        if (null != vos && !vos.isEmpty()) {
+            NodeTable<T> table = NodeTable.of(vos, TreeNodeProxy.createNodeWrapper(vos.get(0)));
+            int index = table.indexOf(id);
+            if (index >= 0) {
+                TreeCoreConstructor.constructSubtree(
+                        table, ChildIndex.of(table.parents()), index, new boolean[table.size()]);
+                root = table.node(index);
+            }
+        }
+        if (null == root) {
+            throw new NullPointerException("构建树失败！未找到id为 " + id + " 的根节点！");
+        }
+        return root;
+    }
+
+    /**
+     * 一次构建多棵子树，返回 id 到根节点的映射
+     * <p>所有子树共用一次读取与索引，只拼接各根节点的后代，子树重叠时孩子只挂一次。
+     * 每棵子树与 {@link #buildSubtreeOfRootId(List, String)} 的结果一致。</p>
+     *
+     * @param vos 所有节点数据
+     * @param ids 根节点的id，不可包含null
+     * @return 根节点id到根节点的映射，按 ids 的顺序排列，未找到的id不包含在内
+     */
+    public static <T> Map<String, T> buildTreeOfRootIds(List<T> vos, @NonNull Collection<String> ids) {
+        for (String id : ids) {
+            if (null == id) {
+                throw new IllegalArgumentException("构建树失败！根节点id不能为空！");
+            }
+        }
+        Map<String, T> result = new LinkedHashMap<>();
+        if (null == vos || vos.isEmpty() || ids.isEmpty()) {
+            return result;
+        }
+        NodeTable<T> table = NodeTable.of(vos, TreeNodeProxy.createNodeWrapper(vos.get(0)));
+        ChildIndex childIndex = ChildIndex.of(table.parents());
+        boolean[] expanded = new boolean[table.size()];
+        for (String id : ids) {
+            int index = table.indexOf(id);
+            if (index >= 0) {
+                TreeCoreConstructor.constructSubtree(table, childIndex, index, expanded);
+                result.put(id, table.node(index));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 一次构建多组子树，返回父 id 到根节点的映射
+     * <p>所有父 id 共用一次读取与索引，一次遍历即完成分组。每组根节点的判定与
+     * {@link #buildTreeOfRootPIdForList(List, String)} 一致，但只拼接各根节点的后代。</p>
+     *
+     * @param nodes 所有节点数据
+     * @param pids  根节点的父id，可包含 null
+     * @return 父id到根节点的映射，按 pids 的顺序排列，没有根节点的父id不包含在内
+     */
+    public static <T> Map<String, List<T>> buildTreeOfRootPIds(List<T> nodes, @NonNull Collection<String> pids) {
+        Map<String, List<T>> result = new LinkedHashMap<>();
+        if (null == nodes || nodes.isEmpty() || pids.isEmpty()) {
+            return result;
+        }
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(pids));
+        NodeTable<T> table = NodeTable.of(nodes, TreeNodeProxy.createNodeWrapper(nodes.get(0)));
+        IntUnaryOperator lookup = table.pidLookup(distinct);
+        // 每组分别记录无父节点的匹配节点与全部匹配节点
+        List<List<Integer>> roots = new ArrayList<>(distinct.size());
+        List<List<Integer>> matched = new ArrayList<>(distinct.size());
+        for (int k = 0; k < distinct.size(); k++) {
+            roots.add(new ArrayList<>());
+            matched.add(new ArrayList<>());
+        }
+        for (int i = 0; i < table.size(); i++) {
+            int k = lookup.applyAsInt(i);
+            if (k >= 0) {
+                matched.get(k).add(i);
+                if (table.parent(i) == NodeTable.NO_PARENT) {
+                    roots.get(k).add(i);
+                }
+            }
+        }
+        ChildIndex childIndex = ChildIndex.of(table.parents());
+        boolean[] expanded = new boolean[table.size()];
+        for (int k = 0; k < distinct.size(); k++) {
+            // 没找到，可能为子树，整体过滤
+            List<Integer> group = roots.get(k).isEmpty() ? matched.get(k) : roots.get(k);
+            if (group.isEmpty()) {
+                continue;
+            }
+            List<T> groupRoots = new ArrayList<>(group.size());
+            for (int index : group) {
+                TreeCoreConstructor.constructSubtree(table, childIndex, index, expanded);
+                groupRoots.add(table.node(index));
+            }
+            result.put(distinct.get(k), groupRoots);
+        }
+        return result;
     }
 
     /**
@@ -119,8 +260,8 @@ public final class TreeUtil {
             return null;
         }
         TreeNodeWrapper<T> wrapper = TreeNodeProxy.createNodeWrapper(nodes.get(0));
-        List<T> result =
-                buildTreeForListProxy(TreeNodeProxy.ofList(nodes, wrapper), n -> Objects.equals(n.getPId(), pid));
+        NodeTable<T> table = NodeTable.of(nodes, wrapper);
+        List<T> result = buildTreeForList(table, table.pidMatcher(pid));
         if (result.isEmpty()) {
             return null;
         }
@@ -129,15 +270,21 @@ public final class TreeUtil {
 
     /**
      * 根据权限反向构造树结构
+     * <p>只拼接有权限的节点及其祖先节点，其余节点不做修改。</p>
      *
      * @param treeNodes 组织机构树
      * @param ids       树id
      * @param rootId    子树根节点id
      * @return 组织机构根层节点
+     * @throws IllegalStateException 父节点链存在环
      */
     public static <T> List<T> buildTreeForSpecifyNode(
             List<T> treeNodes, List<String> ids, String rootId) {
-        return TreeCoreConstructor.constructTreeForSpecifyNode(TreeNodeProxy.ofList(treeNodes), ids, rootId);
+        if (null == treeNodes || treeNodes.isEmpty() || null == ids) {
+            return Collections.emptyList();
+        }
+        NodeTable<T> table = NodeTable.of(treeNodes, TreeNodeProxy.createNodeWrapper(treeNodes.get(0)));
+        return TreeCoreConstructor.constructTreeForSpecifyNode(table, ids, rootId);
     }
 
     /**
@@ -148,12 +295,122 @@ public final class TreeUtil {
      * @return 返回无父节点的节点
      */
     public static <T> List<T> buildTree(List<T> vos) {
-        List<TreeNodeProxy<T>> result = TreeCoreConstructor.constructTree(TreeNodeProxy.ofList(vos));
-        if (result.isEmpty()) {
+        if (null == vos || vos.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return TreeCoreConstructor.constructTree(vos, TreeNodeProxy.createNodeWrapper(vos.get(0)));
+    }
+
+    /**
+     * 并行构造树，返回可能的节点，结果与 {@link #buildTree(List)} 一致
+     * <p>使用公共线程池，节点较少时直接顺序构造。</p>
+     *
+     * @param vos 树节点对象集合
+     * @param <T> 树节点
+     * @return 返回无父节点的节点
+     */
+    public static <T> List<T> buildTreeParallel(List<T> vos) {
+        return buildTreeParallel(vos, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行构造树，返回可能的节点，结果与 {@link #buildTree(List)} 一致
+     * <p>为本次构造创建指定并行度的线程池，构造完成后关闭。</p>
+     *
+     * @param vos         树节点对象集合
+     * @param parallelism 并行度
+     * @param <T>         树节点
+     * @return 返回无父节点的节点
+     */
+    public static <T> List<T> buildTreeParallel(List<T> vos, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("构建树失败！并行度必须大于 0！");
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return buildTreeParallel(vos, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 并行构造树，返回可能的节点，结果与 {@link #buildTree(List)} 一致
+     * <p>节点的 id、父 id 及孩子集合的读写会在多个线程中进行，孩子顺序与节点原始顺序一致。</p>
+     *
+     * @param vos  树节点对象集合
+     * @param pool 线程池
+     * @param <T>  树节点
+     * @return 返回无父节点的节点
+     */
+    public static <T> List<T> buildTreeParallel(List<T> vos, @NonNull ForkJoinPool pool) {
+        if (null == vos || vos.isEmpty()) {
             return Collections.emptyList();
         }
-        return result.stream()
-                .map(TreeNodeProxy::getOrigin)
-                .collect(Collectors.toList());
+        TreeNodeWrapper<T> wrapper = TreeNodeProxy.createNodeWrapper(vos.get(0));
+        if (vos.size() < PARALLEL_THRESHOLD || pool.getParallelism() <= 1) {
+            return TreeCoreConstructor.constructTree(vos, wrapper);
+        }
+        return TreeCoreConstructor.constructTree(vos, wrapper, pool);
+    }
+
+    /**
+     * 并行构造树，并返回指定 id 的根节点，结果与 {@link #buildTreeOfRootId(List, String)} 一致
+     * <p>节点较少或线程池并行度为 1 时直接顺序构造。</p>
+     *
+     * @param vos  所有节点数据
+     * @param id   指定根节点的id，不可为null
+     * @param pool 线程池
+     * @return 根节点
+     * @since 2.1.0
+     */
+    public static <T> T buildTreeOfRootIdParallel(List<T> vos, String id, @NonNull ForkJoinPool pool) {
+        if (null == id) {
+            throw new IllegalArgumentException("构建树失败！根节点id不能为空！");
+        }
+        T root = null;
+        if (null != vos && !vos.isEmpty()) {
+            NodeTable<T> table = constructParallel(vos, pool);
+            int index = table.indexOf(id);
+            root = index < 0 ? null : table.node(index);
+        }
+        if (null == root) {
+            throw new NullPointerException("构建树失败！未找到id为 " + id + " 的根节点！");
+        }
+        return root;
+    }
+
+    /**
+     * 并行构造树，并返回父 id 为指定值的所有根节点，结果与 {@link #buildTreeOfRootPIdForList(List, String)} 一致
+     * <p>节点较少或线程池并行度为 1 时直接顺序构造。</p>
+     *
+     * @param nodes 所有节点数据
+     * @param pid   指定根节点的父id， 可为 null
+     * @param pool  线程池
+     * @return 所有根节点，没有时返回 null
+     * @since 2.1.0
+     */
+    public static <T> List<T> buildTreeOfRootPIdForListParallel(List<T> nodes, String pid, @NonNull ForkJoinPool pool) {
+        if (null == nodes || nodes.isEmpty()) {
+            return null;
+        }
+        NodeTable<T> table = constructParallel(nodes, pool);
+        List<T> result = selectRoots(table, table.pidMatcher(pid));
+        if (result.isEmpty()) {
+            return null;
+        }
+        return result;
+    }
+
+    private static <T> NodeTable<T> constructParallel(List<T> vos, ForkJoinPool pool) {
+        TreeNodeWrapper<T> wrapper = TreeNodeProxy.createNodeWrapper(vos.get(0));
+        if (vos.size() < PARALLEL_THRESHOLD || pool.getParallelism() <= 1) {
+            NodeTable<T> table = NodeTable.of(vos, wrapper);
+            TreeCoreConstructor.constructTree(table);
+            return table;
+        }
+        NodeTable<T> table = NodeTable.of(vos, wrapper, pool);
+        TreeCoreConstructor.constructTree(table, pool);
+        return table;
     }
 }
@@ -0,0 +1,47 @@
+package com.sharkman.nodetree.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChildIndexTest {
+
+    @Test
+    void childrenInOriginalOrder() {
+        int[] parents = {-1, 0, 0, 1, 0, -1, 5};
+        ChildIndex index = ChildIndex.of(parents);
+        assertEquals(3, index.childCount(0));
+        assertEquals(1, index.child(0, 0));
+        assertEquals(2, index.child(0, 1));
+        assertEquals(4, index.child(0, 2));
+        assertEquals(3, index.child(1, 0));
+        assertEquals(0, index.childCount(3));
+        assertEquals(6, index.child(5, 0));
+    }
+
+    @Test
+    void parallelSameAsSequential() {
+        int size = 50_000;
+        Random random = new Random(3);
+        int[] parents = new int[size];
+        for (int i = 0; i < size; i++) {
+            parents[i] = random.nextInt(10) == 0 ? -1 : random.nextInt(size);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ChildIndex sequential = ChildIndex.of(parents);
+            ChildIndex parallel = ChildIndex.of(parents, pool);
+            for (int p = 0; p < size; p++) {
+                assertEquals(sequential.childCount(p), parallel.childCount(p));
+                for (int k = 0; k < sequential.childCount(p); k++) {
+                    assertEquals(sequential.child(p, k), parallel.child(p, k));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sharkman.nodetree.core;
+
+import com.sharkman.nodetree.core.TreeNodeWrapperAnnotationTest.AnnotatedNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChildrenIndexTest {
+
+    @Test
+    void childrenOf() {
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("1", "0"));
+        trees.add(new TestTree("2", "1"));
+        trees.add(new TestTree("11", "0"));
+        trees.add(new TestTree("3", "1"));
+        trees.add(new TestTree("self", "self"));
+        trees.add(new TestTree("top", null));
+        ChildrenIndex<TestTree> index = ChildrenIndex.of(trees);
+
+        assertEquals(Arrays.asList(trees.get(0), trees.get(2)), index.childrenOf("0"));
+        assertEquals(Arrays.asList(trees.get(1), trees.get(3)), index.childrenOf("1"));
+        assertEquals(2, index.childCount("1"));
+        assertTrue(index.hasChildren("1"));
+        assertFalse(index.hasChildren("2"));
+        assertTrue(index.childrenOf("2").isEmpty());
+        assertFalse(index.hasChildren("self"));
+        assertEquals(Arrays.asList(trees.get(5)), index.childrenOf(null));
+        for (TestTree tree : trees) {
+            assertNull(tree.getChildren());
+        }
+    }
+
+    @Test
+    void longKey() {
+        List<AnnotatedNode> nodes = new ArrayList<>();
+        nodes.add(new AnnotatedNode(1L, null));
+        nodes.add(new AnnotatedNode(2L, 1L));
+        nodes.add(new AnnotatedNode(3L, 1L));
+        nodes.add(new AnnotatedNode(4L, 4L));
+        ChildrenIndex<AnnotatedNode> index = ChildrenIndex.of(nodes);
+        assertEquals(Arrays.asList(nodes.get(1), nodes.get(2)), index.childrenOf("1"));
+        assertEquals(Arrays.asList(nodes.get(0)), index.childrenOf(null));
+        assertEquals(0, index.childCount("01"));
+        assertFalse(index.hasChildren("4"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.sharkman.nodetree.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashTrieMapTest {
+
+    @Test
+    void sameAsHashMap() {
+        Random random = new Random(7);
+        Map<Object, Integer> expected = new HashMap<>();
+        HashTrieMap<Object, Integer> map = HashTrieMap.empty();
+        for (int step = 0; step < 50_000; step++) {
+            // 少量哈希值相同的键覆盖冲突节点
+            Object key = random.nextInt(4) == 0 ? new SameHash(random.nextInt(8)) : random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, step);
+                map = map.put(key, step);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Object, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        for (Object key : expected.keySet().toArray()) {
+            map = map.remove(key);
+        }
+        assertEquals(0, map.size());
+        assertSame(HashTrieMap.empty(), map);
+    }
+
+    @Test
+    void persistent() {
+        HashTrieMap<String, String> empty = HashTrieMap.empty();
+        HashTrieMap<String, String> one = empty.put("a", "1");
+        HashTrieMap<String, String> two = one.put("b", null).put(null, "n");
+        assertNull(empty.get("a"));
+        assertEquals("1", one.get("a"));
+        assertFalse(one.containsKey("b"));
+        assertTrue(two.containsKey("b"));
+        assertEquals("n", two.get(null));
+        assertEquals(3, two.size());
+        assertSame(two, two.put("a", two.get("a")));
+        assertSame(two, two.remove("missing"));
+        assertEquals(1, one.size());
+    }
+
+    private static final class SameHash {
+        private final int value;
+
+        SameHash(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SameHash && ((SameHash) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
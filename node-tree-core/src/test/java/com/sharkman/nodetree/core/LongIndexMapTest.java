@@ -0,0 +1,38 @@
+package com.sharkman.nodetree.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIndexMapTest {
+
+    @Test
+    void putAndGet() {
+        LongIndexMap map = new LongIndexMap(4);
+        map.put(0L, 0);
+        map.put(-1L, 1);
+        map.put(Long.MIN_VALUE, 2);
+        map.put(Long.MAX_VALUE, 3);
+        assertEquals(0, map.get(0L));
+        assertEquals(1, map.get(-1L));
+        assertEquals(2, map.get(Long.MIN_VALUE));
+        assertEquals(3, map.get(Long.MAX_VALUE));
+        assertEquals(LongIndexMap.NOT_FOUND, map.get(1L));
+    }
+
+    @Test
+    void overwriteAndRehash() {
+        LongIndexMap map = new LongIndexMap(0);
+        int size = 10_000;
+        for (int i = 0; i < size; i++) {
+            map.put(i * 1024L, i);
+        }
+        map.put(0L, size);
+        assertEquals(size, map.size());
+        assertEquals(size, map.get(0L));
+        for (int i = 1; i < size; i++) {
+            assertEquals(i, map.get(i * 1024L));
+        }
+        assertEquals(LongIndexMap.NOT_FOUND, map.get(1L));
+    }
+}
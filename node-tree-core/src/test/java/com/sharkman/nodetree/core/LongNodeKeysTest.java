@@ -0,0 +1,28 @@
+package com.sharkman.nodetree.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongNodeKeysTest {
+
+    /**
+     * 与 Long.toString 的结果相同才是规范写法
+     */
+    @Test
+    void canonicalKey() {
+        long[] values = {0, 7, -7, 10, -1, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE + 1};
+        for (long value : values) {
+            String key = Long.toString(value);
+            assertTrue(LongNodeKeys.isKey(key), key);
+            assertEquals(value, LongNodeKeys.toKey(key));
+        }
+        String[] invalid = {"", "-", "+7", "007", "-0", "-07", "7a", "a", " 7", "1.0",
+                "9223372036854775808", "-9223372036854775809", "10000000000000000000"};
+        for (String key : invalid) {
+            assertFalse(LongNodeKeys.isKey(key), key);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.sharkman.nodetree.core;
+
+import com.sharkman.nodetree.core.TreeNodeWrapperAnnotationTest.AnnotatedNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.sharkman.nodetree.core.TestTreeUtilTest.describe;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutableTreeTest {
+
+    @Test
+    void insert() {
+        MutableTree<TestTree> tree = MutableTree.of(Collections.singletonList(new TestTree("1", null)));
+        tree.insert(new TestTree("3", "2"))
+                .insert(new TestTree("2", "1"))
+                .insert(new TestTree("4", "1"));
+        assertEquals("1(2(3())4())", describe(tree.roots()));
+        assertEquals(4, tree.size());
+        assertTrue(tree.contains("3"));
+        assertThrows(IllegalArgumentException.class, () -> tree.insert(new TestTree("2", "1")));
+
+        MutableTree<TestTree> empty = MutableTree.of(null);
+        assertNull(empty.get("1"));
+        empty.insert(new TestTree("2", "1")).insert(new TestTree("1", null));
+        assertEquals("1(2())", describe(empty.roots()));
+    }
+
+    @Test
+    void remove() {
+        MutableTree<TestTree> tree = MutableTree.of(trees());
+        TestTree removed = tree.remove("2", true);
+        assertEquals("2", removed.getId());
+        assertEquals("1(4())", describe(tree.roots()));
+        assertFalse(tree.contains("3"));
+        assertEquals(2, tree.size());
+        assertNull(tree.remove("missing", true));
+
+        tree = MutableTree.of(trees());
+        tree.remove("2", false);
+        assertEquals("1(4())3()", describe(tree.roots()));
+        assertTrue(removed.getChildren().size() > 0);
+        // 同 id 的节点再次插入后孩子重新挂上
+        tree.insert(new TestTree("2", "4"));
+        assertEquals("1(4(2(3())))", describe(tree.roots()));
+    }
+
+    @Test
+    void move() {
+        MutableTree<TestTree> tree = MutableTree.of(trees());
+        tree.move("3", "1");
+        assertEquals("1(2()4()3())", describe(tree.roots()));
+        tree.move("2", "4");
+        assertEquals("1(4(2())3())", describe(tree.roots()));
+        tree.move("4", null);
+        assertEquals("1(3())4(2())", describe(tree.roots()));
+        assertThrows(IllegalStateException.class, () -> tree.move("4", "2"));
+        assertThrows(IllegalStateException.class, () -> tree.move("4", "4").move("2", "2").move("1", "3"));
+        assertThrows(IllegalArgumentException.class, () -> tree.move("missing", "1"));
+        // 失败的移动不改变树
+        assertEquals("1(3())4()2()", describe(tree.roots()));
+    }
+
+    @Test
+    void updatePid() {
+        List<MovableNode> nodes = new ArrayList<>();
+        nodes.add(new MovableNode("1", null));
+        nodes.add(new MovableNode("2", "1"));
+        nodes.add(new MovableNode("3", "1"));
+        MutableTree<MovableNode> tree = MutableTree.of(nodes);
+        nodes.get(2).pId = "2";
+        tree.updatePid("3");
+        assertEquals("1(2(3()))", describe(tree.roots()));
+        nodes.get(1).pId = "3";
+        assertThrows(IllegalStateException.class, () -> tree.updatePid("2"));
+    }
+
+    @Test
+    void longKey() {
+        List<AnnotatedNode> nodes = new ArrayList<>();
+        nodes.add(new AnnotatedNode(1L, null));
+        nodes.add(new AnnotatedNode(2L, 1L));
+        MutableTree<AnnotatedNode> tree = MutableTree.of(nodes);
+        tree.insert(new AnnotatedNode(3L, 2L)).move("3", "1");
+        assertEquals(2, tree.get("1").getChildren().size());
+        assertNull(tree.get("01"));
+        assertEquals(Long.valueOf(3L), tree.remove("3", true).getId());
+    }
+
+    private List<TestTree> trees() {
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("1", null));
+        trees.add(new TestTree("2", "1"));
+        trees.add(new TestTree("3", "2"));
+        trees.add(new TestTree("4", "1"));
+        return trees;
+    }
+
+    static class MovableNode implements Treeable {
+        private final String id;
+        private String pId;
+        private List<Treeable> children;
+
+        MovableNode(String id, String pId) {
+            this.id = id;
+            this.pId = pId;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getPId() {
+            return pId;
+        }
+
+        @Override
+        public List<Treeable> getChildren() {
+            return children;
+        }
+
+        @Override
+        public void setChildren(List<Treeable> children) {
+            this.children = children;
+        }
+    }
+}
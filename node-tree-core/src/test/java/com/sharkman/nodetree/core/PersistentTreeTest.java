@@ -0,0 +1,107 @@
+package com.sharkman.nodetree.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentTreeTest {
+
+    @Test
+    void sameAsBuildTree() {
+        PersistentTree<TestTree> tree = PersistentTree.of(trees());
+        assertEquals(7, tree.size());
+        assertEquals("1(2(3())4())5(6())7()", describe(tree.roots()));
+        assertEquals("3", tree.get("3").getId());
+        assertFalse(tree.contains("x"));
+        assertNull(tree.find("x"));
+        assertNull(tree.get("1").getChildren());
+        assertThrows(UnsupportedOperationException.class, () -> tree.roots().clear());
+    }
+
+    /**
+     * 修改只复制到根节点的路径，旧版本不变
+     */
+    @Test
+    void pathCopy() {
+        PersistentTree<TestTree> v0 = PersistentTree.of(trees());
+        TestTree changed = new TestTree("3", "2");
+        PersistentTree<TestTree> v1 = v0.with(changed);
+        assertSame(changed, v1.get("3"));
+        assertNotSame(changed, v0.get("3"));
+        assertNotSame(v0.find("2"), v1.find("2"));
+        assertSame(v0.find("4"), v1.find("4"));
+        assertSame(v0.find("5"), v1.find("5"));
+        assertEquals(describe(v0.roots()), describe(v1.roots()));
+    }
+
+    @Test
+    void insertMoveRemove() {
+        PersistentTree<TestTree> v0 = PersistentTree.of(trees());
+        PersistentTree<TestTree> v1 = v0.with(new TestTree("8", "7")).with(new TestTree("9", "1"));
+        assertEquals("1(2(3())4()9())5(6())7(8())", describe(v1.roots()));
+        PersistentTree<TestTree> v2 = v1.with(new TestTree("7", "6"));
+        assertEquals("1(2(3())4()9())5(6(7(8())))", describe(v2.roots()));
+        // 移动子树
+        PersistentTree<TestTree> v3 = v2.with(new TestTree("2", "8"));
+        assertEquals("1(4()9())5(6(7(8(2(3())))))", describe(v3.roots()));
+        assertThrows(IllegalStateException.class, () -> v3.with(new TestTree("5", "3")));
+        // 删除子树
+        PersistentTree<TestTree> v4 = v3.without("7");
+        assertEquals("1(4()9())5(6())", describe(v4.roots()));
+        assertEquals(5, v4.size());
+        assertFalse(v4.contains("3"));
+        assertSame(v4, v4.without("7"));
+
+        assertEquals("1(2(3())4())5(6())7()", describe(v0.roots()));
+        assertEquals(9, v3.size());
+    }
+
+    /**
+     * 新增节点的父节点是等待它的根节点的后代时会成环，不修改树
+     */
+    @Test
+    void insertCycle() {
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("a", "x"));
+        trees.add(new TestTree("b", "a"));
+        PersistentTree<TestTree> tree = PersistentTree.of(trees);
+        assertThrows(IllegalStateException.class, () -> tree.with(new TestTree("x", "b")));
+        assertThrows(IllegalStateException.class, () -> tree.with(new TestTree("x", "a")));
+        assertEquals("a(b())", describe(tree.roots()));
+        assertEquals("x(a(b()))", describe(tree.with(new TestTree("x", "x")).roots()));
+        assertEquals("b", tree.with(new TestTree("x", "y")).get("b").getId());
+    }
+
+    @Test
+    void empty() {
+        PersistentTree<TestTree> empty = PersistentTree.of(null);
+        assertEquals(0, empty.size());
+        assertSame(empty, empty.without("1"));
+        PersistentTree<TestTree> tree = empty.with(new TestTree("2", "1")).with(new TestTree("1", "1"));
+        assertEquals("1(2())", describe(tree.roots()));
+        assertEquals(0, empty.size());
+    }
+
+    private static String describe(List<PersistentTree.Node<TestTree>> nodes) {
+        StringBuilder builder = new StringBuilder();
+        for (PersistentTree.Node<TestTree> node : nodes) {
+            builder.append(node.getValue().getId()).append('(').append(describe(node.getChildren())).append(')');
+        }
+        return builder.toString();
+    }
+
+    private List<TestTree> trees() {
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("1", null));
+        trees.add(new TestTree("2", "1"));
+        trees.add(new TestTree("3", "2"));
+        trees.add(new TestTree("4", "1"));
+        trees.add(new TestTree("5", null));
+        trees.add(new TestTree("6", "5"));
+        trees.add(new TestTree("7", "x"));
+        return trees;
+    }
+}
@@ -3,9 +3,14 @@ package com.sharkman.nodetree.core;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.sharkman.nodetree.core.TreeTraverseUtil.countNodes;
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +27,66 @@ class TestTreeUtilTest {
         assertEquals("1", root.getId());
     }
 
+    /**
+     * 只构建子树，子树以外的节点不做修改
+     */
+    @Test
+    void buildSubtreeOfRootId() {
+        List<TestTree> trees = multiRootTrees();
+        TestTree root = TreeUtil.buildSubtreeOfRootId(trees, "01");
+        assertEquals(describe(Collections.singletonList(TreeUtil.buildTreeOfRootId(multiRootTrees(), "01"))),
+                describe(Collections.singletonList(root)));
+        for (TestTree tree : trees) {
+            if (!tree.getId().startsWith("0")) {
+                assertNull(tree.getChildren());
+            }
+        }
+        assertThrows(NullPointerException.class, () -> TreeUtil.buildSubtreeOfRootId(multiRootTrees(), "missing"));
+    }
+
+    /**
+     * 父节点链成环时不会把根节点挂为孩子
+     */
+    @Test
+    void buildSubtreeOfRootIdWithCycle() {
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("a", "c"));
+        trees.add(new TestTree("b", "a"));
+        trees.add(new TestTree("c", "b"));
+        TestTree root = TreeUtil.buildSubtreeOfRootId(trees, "a");
+        assertEquals("a(b(c()))", describe(Collections.singletonList(root)));
+    }
+
+    /**
+     * 一次构建多棵子树，重叠的子树孩子不重复
+     */
+    @Test
+    void buildTreeOfRootIds() {
+        List<TestTree> trees = multiRootTrees();
+        Map<String, TestTree> roots = TreeUtil.buildTreeOfRootIds(trees, Arrays.asList("2", "1", "01", "missing"));
+        assertEquals(Arrays.asList("2", "1", "01"), new ArrayList<>(roots.keySet()));
+        assertEquals("1(2(3())2.1())", describe(Collections.singletonList(roots.get("1"))));
+        assertEquals("2(3())", describe(Collections.singletonList(roots.get("2"))));
+        assertEquals("01(02(03())02.1())", describe(Collections.singletonList(roots.get("01"))));
+        assertNull(trees.get(8).getChildren());
+        assertThrows(IllegalArgumentException.class,
+                () -> TreeUtil.buildTreeOfRootIds(trees, Collections.singletonList(null)));
+    }
+
+    /**
+     * 一次按多个父 id 构建，结果与逐个构建一致
+     */
+    @Test
+    void buildTreeOfRootPIds() {
+        List<String> pids = Arrays.asList("0", "01", "xx", "missing", null);
+        Map<String, List<TestTree>> roots = TreeUtil.buildTreeOfRootPIds(multiRootTrees(), pids);
+        assertEquals(Arrays.asList("0", "01", "xx"), new ArrayList<>(roots.keySet()));
+        for (String pid : roots.keySet()) {
+            assertEquals(describe(TreeUtil.buildTreeOfRootPIdForList(multiRootTrees(), pid)),
+                    describe(roots.get(pid)));
+        }
+    }
+
     /**
      * 根据id获取根节点
      */
@@ -73,6 +138,154 @@ class TestTreeUtilTest {
         assertEquals(countNodes(root), trees.size() - 1);
     }
 
+    /**
+     * 直接在原始对象上拼接，孩子顺序与节点原始顺序一致
+     */
+    @Test
+    void constructTreeWithoutProxy() {
+        TreeNodeWrapper<TestTree> wrapper = TreeNodeWrapperRegistry.getWrapper(TestTree.class);
+        List<TestTree> directRoots = TreeCoreConstructor.constructTree(multiRootTrees(), wrapper);
+        assertEquals("1(2(3())2.1())01(02(03())02.1())11()xx()", describe(directRoots));
+    }
+
+    /**
+     * 根据权限反向构造树，只包含有权限的节点及其祖先
+     */
+    @Test
+    void buildTreeForSpecifyNode() {
+        List<String> ids = Arrays.asList("02.1", "3", "2", "missing");
+        List<TestTree> roots = TreeUtil.buildTreeForSpecifyNode(multiRootTrees(), ids, "0");
+        assertEquals("1(2(3()))01(02.1())", describe(roots));
+
+        roots = TreeUtil.buildTreeForSpecifyNode(multiRootTrees(), ids, "01");
+        assertEquals("01(02.1())", describe(roots));
+
+        assertTrue(TreeUtil.buildTreeForSpecifyNode(multiRootTrees(), Collections.emptyList(), "0").isEmpty());
+    }
+
+    /**
+     * 父节点链存在环时抛出异常，而不是死循环
+     */
+    @Test
+    void buildTreeForSpecifyNodeWithCycle() {
+        List<TestTree> trees = multiRootTrees();
+        trees.add(new TestTree("a", "b"));
+        trees.add(new TestTree("b", "c"));
+        trees.add(new TestTree("c", "a"));
+        trees.add(new TestTree("d", "b"));
+        List<String> ids = Collections.singletonList("d");
+        assertThrows(IllegalStateException.class, () -> TreeUtil.buildTreeForSpecifyNode(trees, ids, "0"));
+    }
+
+    /**
+     * 每个祖先只处理一次，深链上全部授权也是线性时间
+     */
+    @Test
+    void buildTreeForSpecifyNodeOnDeepChain() {
+        int size = 200_000;
+        List<TestTree> trees = new ArrayList<>(size);
+        List<String> ids = new ArrayList<>(size);
+        trees.add(new TestTree("0", null));
+        for (int i = 1; i < size; i++) {
+            trees.add(new TestTree(String.valueOf(i), String.valueOf(i - 1)));
+            ids.add(String.valueOf(i));
+        }
+        Collections.reverse(ids);
+        List<TestTree> roots = TreeUtil.buildTreeForSpecifyNode(trees, ids, "0");
+        assertEquals(1, roots.size());
+        assertEquals(size, countNodes(roots));
+    }
+
+    /**
+     * 并行构造与顺序构造的结构及孩子顺序一致，包括重复 id、缺失父节点与自引用节点
+     */
+    @Test
+    void buildTreeParallel() {
+        int size = 100_000;
+        List<TestTree> sequential = randomTrees(size, 7);
+        List<TestTree> parallel = randomTrees(size, 7);
+        Map<Treeable, Integer> sequentialIndex = indexOf(sequential);
+        Map<Treeable, Integer> parallelIndex = indexOf(parallel);
+        assertEquals(positions(sequentialIndex, TreeUtil.buildTree(sequential)),
+                positions(parallelIndex, TreeUtil.buildTreeParallel(parallel, 4)));
+        for (int i = 0; i < size; i++) {
+            assertEquals(positions(sequentialIndex, sequential.get(i).getChildren()),
+                    positions(parallelIndex, parallel.get(i).getChildren()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> TreeUtil.buildTreeParallel(parallel, 0));
+    }
+
+    @Test
+    void buildTreeOfRootParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<TestTree> sequential = randomTrees(50_000, 11);
+            List<TestTree> parallel = randomTrees(50_000, 11);
+            Map<Treeable, Integer> sequentialIndex = indexOf(sequential);
+            Map<Treeable, Integer> parallelIndex = indexOf(parallel);
+            assertEquals(positions(sequentialIndex, TreeUtil.buildTreeOfRootPIdForList(sequential, "3")),
+                    positions(parallelIndex, TreeUtil.buildTreeOfRootPIdForListParallel(parallel, "3", pool)));
+            List<TestTree> sequentialById = randomTrees(50_000, 11);
+            List<TestTree> parallelById = randomTrees(50_000, 11);
+            Integer root = indexOf(sequentialById).get(TreeUtil.buildTreeOfRootId(sequentialById, "5"));
+            assertNotNull(root);
+            assertEquals(root, indexOf(parallelById).get(TreeUtil.buildTreeOfRootIdParallel(parallelById, "5", pool)));
+
+            assertEquals("1(2(3())2.1())", describe(TreeUtil.buildTreeOfRootPIdForListParallel(oneRootTrees(), null, pool)));
+            assertNull(TreeUtil.buildTreeOfRootPIdForListParallel(oneRootTrees(), "missing", pool));
+            assertThrows(NullPointerException.class, () -> TreeUtil.buildTreeOfRootIdParallel(oneRootTrees(), "missing", pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Map<Treeable, Integer> indexOf(List<TestTree> trees) {
+        Map<Treeable, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < trees.size(); i++) {
+            index.put(trees.get(i), i);
+        }
+        return index;
+    }
+
+    /**
+     * 节点在原始列表中的位置，重复 id 可能形成环，不能递归输出
+     */
+    private static List<Integer> positions(Map<Treeable, Integer> index, List<? extends Treeable> nodes) {
+        List<Integer> positions = new ArrayList<>();
+        if (null != nodes) {
+            for (Treeable node : nodes) {
+                positions.add(index.get(node));
+            }
+        }
+        return positions;
+    }
+
+    private List<TestTree> randomTrees(int size, long seed) {
+        Random random = new Random(seed);
+        List<TestTree> trees = new ArrayList<>(size);
+        trees.add(new TestTree("0", null));
+        for (int i = 1; i < size; i++) {
+            int kind = random.nextInt(100);
+            String id = kind == 0 ? String.valueOf(random.nextInt(i)) : String.valueOf(i);
+            String pid = kind == 1 ? "missing" : kind == 2 ? id : String.valueOf(random.nextInt(i));
+            trees.add(new TestTree(id, pid));
+        }
+        return trees;
+    }
+
+    /**
+     * 以先序输出树结构
+     */
+    static String describe(List<? extends Treeable> nodes) {
+        StringBuilder builder = new StringBuilder();
+        if (null == nodes) {
+            return builder.toString();
+        }
+        for (Treeable node : nodes) {
+            builder.append(node.getId()).append('(').append(describe(node.getChildren())).append(')');
+        }
+        return builder.toString();
+    }
 
     private List<TestTree> oneRootTrees() {
         List<TestTree> trees = new ArrayList<>();
@@ -0,0 +1,102 @@
+package com.sharkman.nodetree.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeAncestorIndexTest {
+
+    @Test
+    void lca() {
+        TreeAncestorIndex<TestTree> index = TreeAncestorIndex.of(trees());
+        assertEquals("1", index.lca("3", "2.1").getId());
+        assertEquals("2", index.lca("3", "2").getId());
+        assertEquals("2", index.lca("2", "3").getId());
+        assertEquals("3", index.lca("3", "3").getId());
+        assertNull(index.lca("3", "x"));
+        assertNull(index.lca("3", "missing"));
+    }
+
+    @Test
+    void kthAncestor() {
+        TreeAncestorIndex<TestTree> index = TreeAncestorIndex.of(trees());
+        assertEquals("3", index.kthAncestor("3", 0).getId());
+        assertEquals("2", index.kthAncestor("3", 1).getId());
+        assertEquals("1", index.kthAncestor("3", 2).getId());
+        assertNull(index.kthAncestor("3", 3));
+        assertEquals(Arrays.asList("3", "2", "1"), ids(index.pathToRoot("3")));
+        assertTrue(index.pathToRoot("missing").isEmpty());
+    }
+
+    /**
+     * 深链上与逐级查找父节点的结果一致
+     */
+    @Test
+    void deepChain() {
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("0", null));
+        for (int i = 1; i < 5000; i++) {
+            // 每个节点挂在 i/2 或 i-1 下，形成较深的树
+            int parent = i % 3 == 0 ? i / 2 : i - 1;
+            trees.add(new TestTree(String.valueOf(i), String.valueOf(parent)));
+        }
+        TreeAncestorIndex<TestTree> index = TreeAncestorIndex.of(trees);
+        for (int a = 1; a < 5000; a += 37) {
+            for (int b = 2; b < 5000; b += 91) {
+                assertEquals(naiveLca(trees, a, b), index.lca(String.valueOf(a), String.valueOf(b)).getId());
+            }
+        }
+    }
+
+    @Test
+    void cycle() {
+        List<TestTree> trees = trees();
+        trees.add(new TestTree("a", "b"));
+        trees.add(new TestTree("b", "a"));
+        TreeAncestorIndex<TestTree> index = TreeAncestorIndex.of(trees);
+        assertEquals(TreeAncestorIndex.NONE, index.depth(index.indexOf("a")));
+        assertNull(index.lca("a", "b"));
+        assertNull(index.kthAncestor("a", 1));
+        assertTrue(index.pathToRoot("a").isEmpty());
+    }
+
+    private static String naiveLca(List<TestTree> trees, int a, int b) {
+        List<String> pathA = naivePath(trees, a);
+        List<String> pathB = naivePath(trees, b);
+        for (String id : pathA) {
+            if (pathB.contains(id)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> naivePath(List<TestTree> trees, int x) {
+        List<String> path = new ArrayList<>();
+        String current = String.valueOf(x);
+        while (null != current) {
+            path.add(current);
+            current = trees.get(Integer.parseInt(current)).getPId();
+        }
+        return path;
+    }
+
+    private static List<String> ids(List<TestTree> nodes) {
+        return nodes.stream().map(TestTree::getId).collect(Collectors.toList());
+    }
+
+    private List<TestTree> trees() {
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("1", null));
+        trees.add(new TestTree("2", "1"));
+        trees.add(new TestTree("3", "2"));
+        trees.add(new TestTree("2.1", "1"));
+        trees.add(new TestTree("x", "y"));
+        return trees;
+    }
+}
@@ -0,0 +1,74 @@
+package com.sharkman.nodetree.core;
+
+import com.sharkman.nodetree.core.TreeNodeWrapperAnnotationTest.AnnotatedNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static com.sharkman.nodetree.core.TestTreeUtilTest.describe;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeBuilderTest {
+
+    /**
+     * 节点以任意顺序到达，结果与一次性构造一致
+     */
+    @Test
+    void sameAsBuildTree() {
+        for (long seed = 0; seed < 5; seed++) {
+            List<TestTree> expected = shuffledTrees(seed);
+            List<TestTree> actual = shuffledTrees(seed);
+            List<TestTree> roots = TreeBuilder.<TestTree>create().acceptAll(actual.iterator()).build();
+            assertEquals(describe(TreeUtil.buildTree(expected)), describe(roots));
+        }
+    }
+
+    @Test
+    void buildOfRoot() {
+        TestTree root = TreeBuilder.<TestTree>create().acceptAll(shuffledTrees(1).stream()).buildOfRootId("0");
+        assertEquals(describe(Collections.singletonList(TreeUtil.buildTreeOfRootId(shuffledTrees(1), "0"))),
+                describe(Collections.singletonList(root)));
+
+        List<TestTree> roots = TreeBuilder.<TestTree>create().acceptAll(shuffledTrees(2)).buildOfRootPIdForList("x");
+        assertEquals(describe(TreeUtil.buildTreeOfRootPIdForList(shuffledTrees(2), "x")), describe(roots));
+        assertNull(TreeBuilder.<TestTree>create().acceptAll(shuffledTrees(2)).buildOfRootPIdForList("missing"));
+        assertThrows(NullPointerException.class,
+                () -> TreeBuilder.<TestTree>create().acceptAll(shuffledTrees(2)).buildOfRootId("missing"));
+    }
+
+    /**
+     * 整数 id 以 long 作为键
+     */
+    @Test
+    void longKey() {
+        List<AnnotatedNode> nodes = new ArrayList<>();
+        nodes.add(new AnnotatedNode(3L, 2L));
+        nodes.add(new AnnotatedNode(2L, 1L));
+        nodes.add(new AnnotatedNode(1L, null));
+        nodes.add(new AnnotatedNode(4L, 1L));
+        TreeBuilder<AnnotatedNode> builder = TreeBuilder.create(TreeNodeWrapperRegistry.getWrapper(AnnotatedNode.class));
+        AnnotatedNode root = builder.acceptAll(nodes.spliterator()).buildOfRootId("1");
+        assertEquals(Long.valueOf(2L), root.getChildren().get(0).getId());
+        assertEquals(Long.valueOf(3L), root.getChildren().get(0).getChildren().get(0).getId());
+        assertEquals(Long.valueOf(4L), root.getChildren().get(1).getId());
+        assertThrows(IllegalStateException.class, () -> builder.accept(new AnnotatedNode(5L, 1L)));
+    }
+
+    private List<TestTree> shuffledTrees(long seed) {
+        Random random = new Random(seed);
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("0", null));
+        for (int i = 1; i < 200; i++) {
+            trees.add(new TestTree(String.valueOf(i), String.valueOf(random.nextInt(i))));
+        }
+        trees.add(new TestTree("a", "x"));
+        trees.add(new TestTree("b", "x"));
+        trees.add(new TestTree("c", "a"));
+        Collections.shuffle(trees, random);
+        return trees.stream().map(t -> new TestTree(t.getId(), t.getPId())).collect(Collectors.toList());
+    }
+}
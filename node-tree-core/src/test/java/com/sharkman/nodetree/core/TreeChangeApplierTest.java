@@ -0,0 +1,162 @@
+package com.sharkman.nodetree.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeChangeApplierTest {
+
+    @Test
+    void apply() {
+        List<TestTree> initial = new ArrayList<>();
+        initial.add(new TestTree("1", null));
+        initial.add(new TestTree("2", "1"));
+        initial.add(new TestTree("3", "2"));
+        TreeChangeApplier<TestTree> applier = TreeChangeApplier.of(initial);
+        TreeSnapshot<TestTree> before = applier.snapshot();
+
+        int applied = applier.apply(Arrays.asList(
+                TreeChangeEvent.insert(new TestTree("4", "1")),
+                TreeChangeEvent.update(new TestTree("3", "4")),
+                TreeChangeEvent.delete("2"),
+                TreeChangeEvent.delete("missing"),
+                TreeChangeEvent.update(new TestTree("4", "1"))));
+        assertEquals(5, applied);
+
+        // 旧快照不受影响
+        assertEquals(3, before.size());
+        assertEquals("3", before.find("2").getChildren().get(0).getValue().getId());
+
+        TreeSnapshot<TestTree> after = applier.snapshot();
+        assertEquals(1, after.version());
+        assertEquals(3, after.size());
+        assertNull(after.find("2"));
+        assertEquals("1(4(3()))", TreeSnapshotHolderTest.describe(after.roots()));
+    }
+
+    /**
+     * 新增已存在的节点失败，之前的事件发布，失败的事件及其后的事件通过异常返回
+     */
+    @Test
+    void insertExisting() {
+        List<TestTree> initial = new ArrayList<>();
+        initial.add(new TestTree("1", null));
+        TreeChangeApplier<TestTree> applier = TreeChangeApplier.of(initial);
+        TreeSnapshot<TestTree> before = applier.snapshot();
+        List<TreeChangeEvent<TestTree>> batch = Arrays.asList(
+                TreeChangeEvent.insert(new TestTree("2", "1")),
+                TreeChangeEvent.insert(new TestTree("1", null)),
+                TreeChangeEvent.insert(new TestTree("3", "1")));
+        TreeChangeException e = assertThrows(TreeChangeException.class, () -> applier.apply(batch));
+        assertEquals(1, e.getApplied());
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+        assertSame(batch.get(1), e.getFailedEvent());
+        assertEquals(batch.subList(1, 3), e.getRemaining());
+        assertSame(applier.snapshot(), e.getSnapshot());
+        assertEquals(1, applier.snapshot().version());
+        assertEquals("1(2())", TreeSnapshotHolderTest.describe(applier.snapshot().roots()));
+        assertEquals(1, before.size());
+
+        // 第一个事件即失败时不发布
+        TreeChangeException first = assertThrows(TreeChangeException.class,
+                () -> applier.apply(e.<TestTree>getRemaining()));
+        assertEquals(0, first.getApplied());
+        assertEquals(1, applier.snapshot().version());
+
+        // 跳过失败的事件后继续应用
+        List<TreeChangeEvent<TestTree>> remaining = e.getRemaining();
+        assertEquals(1, applier.apply(remaining.subList(1, remaining.size())));
+        assertEquals("1(2()3())", TreeSnapshotHolderTest.describe(applier.snapshot().roots()));
+    }
+
+    /**
+     * 批次中的事件失败时，已从队列取出的事件不会丢失
+     */
+    @Test
+    void drainFailure() throws InterruptedException {
+        BlockingQueue<TreeChangeEvent<TestTree>> queue = new ArrayBlockingQueue<>(16);
+        TreeChangeApplier<TestTree> applier = TreeChangeApplier.of(null);
+        queue.put(TreeChangeEvent.insert(new TestTree("1", null)));
+        queue.put(TreeChangeEvent.insert(new TestTree("1", null)));
+        queue.put(TreeChangeEvent.insert(new TestTree("2", "1")));
+        queue.put(TreeChangeEvent.delete("1"));
+        TreeChangeException e = assertThrows(TreeChangeException.class,
+                () -> applier.drain(queue, 3, 1, TimeUnit.SECONDS));
+        assertEquals(1, e.getApplied());
+        assertEquals(2, e.getRemaining().size());
+        assertEquals(1, applier.snapshot().size());
+        assertEquals(1, queue.size());
+
+        List<TreeChangeEvent<TestTree>> remaining = e.getRemaining();
+        assertEquals(1, applier.apply(remaining.subList(1, remaining.size())));
+        assertEquals(1, applier.drain(queue, 3, 1, TimeUnit.SECONDS));
+        assertEquals("2()", TreeSnapshotHolderTest.describe(applier.snapshot().roots()));
+    }
+
+    @Test
+    void emptyInitial() {
+        TreeChangeApplier<TestTree> applier = TreeChangeApplier.of(null);
+        assertEquals(0, applier.snapshot().size());
+        applier.apply(Arrays.asList(TreeChangeEvent.delete("1"), TreeChangeEvent.insert(new TestTree("1", null))));
+        assertEquals(1, applier.snapshot().size());
+        assertEquals(0, applier.apply(new ArrayList<>()));
+    }
+
+    /**
+     * 读线程只能看到完整的批次：每批同时新增父子两个节点
+     */
+    @Test
+    void drain() throws InterruptedException {
+        BlockingQueue<TreeChangeEvent<TestTree>> queue = new ArrayBlockingQueue<>(1024);
+        TreeChangeApplier<TestTree> applier = TreeChangeApplier.of(null);
+        int pairs = 2000;
+        Thread writer = new Thread(() -> {
+            try {
+                int applied = 0;
+                while (applied < pairs * 2) {
+                    List<TreeChangeEvent<TestTree>> batch = new ArrayList<>(2);
+                    batch.add(queue.take());
+                    batch.add(queue.take());
+                    applied += applier.apply(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        writer.start();
+        List<String> errors = new ArrayList<>();
+        Thread reader = new Thread(() -> {
+            while (writer.isAlive()) {
+                TreeSnapshot<TestTree> snapshot = applier.snapshot();
+                if (snapshot.size() % 2 != 0 || snapshot.roots().size() * 2 != snapshot.size()) {
+                    errors.add("half-applied batch: " + snapshot.size());
+                    return;
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < pairs; i++) {
+            queue.put(TreeChangeEvent.insert(new TestTree("p" + i, null)));
+            queue.put(TreeChangeEvent.insert(new TestTree("c" + i, "p" + i)));
+        }
+        writer.join(60_000);
+        reader.join(60_000);
+        assertTrue(errors.isEmpty(), errors.toString());
+        assertEquals(pairs * 2, applier.snapshot().size());
+
+        queue.put(TreeChangeEvent.delete("c0"));
+        queue.put(TreeChangeEvent.delete("c1"));
+        queue.put(TreeChangeEvent.delete("c2"));
+        assertEquals(2, applier.drain(queue, 2, 1, TimeUnit.SECONDS));
+        assertEquals(1, applier.drain(queue, 2, 1, TimeUnit.SECONDS));
+        assertEquals(0, applier.drain(queue, 2, 10, TimeUnit.MILLISECONDS));
+        assertEquals(pairs * 2 - 3, applier.snapshot().size());
+    }
+}
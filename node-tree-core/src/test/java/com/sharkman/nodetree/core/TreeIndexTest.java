@@ -0,0 +1,122 @@
+package com.sharkman.nodetree.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeIndexTest {
+
+    @Test
+    void structure() {
+        List<TestTree> trees = trees();
+        TreeIndex<TestTree> index = TreeIndex.of(trees);
+        assertEquals(trees.size(), index.size());
+
+        int root = index.indexOf("1");
+        assertEquals(0, root);
+        assertEquals(TreeIndex.NONE, index.parent(root));
+        assertEquals(0, index.depth(root));
+        assertEquals(Arrays.asList(trees.get(1), trees.get(3)), index.children(root));
+
+        int leaf = index.indexOf("3");
+        assertEquals(index.indexOf("2"), index.parent(leaf));
+        assertEquals(2, index.depth(leaf));
+        assertTrue(index.children(leaf).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> index.child(leaf, 0));
+
+        assertEquals(TreeIndex.NONE, index.indexOf("missing"));
+        assertEquals(Arrays.asList(trees.get(0), trees.get(4)), index.roots());
+        assertEquals(2, index.rootCount());
+        assertThrows(UnsupportedOperationException.class, () -> index.roots().add(trees.get(1)));
+    }
+
+    /**
+     * 不修改节点对象
+     */
+    @Test
+    void readOnly() {
+        List<TestTree> trees = trees();
+        TreeIndex.of(trees);
+        for (TestTree tree : trees) {
+            assertNull(tree.getChildren());
+        }
+    }
+
+    /**
+     * 父节点链成环的节点不可到达，深度为 NONE
+     */
+    @Test
+    void cycle() {
+        List<TestTree> trees = trees();
+        trees.add(new TestTree("a", "b"));
+        trees.add(new TestTree("b", "a"));
+        TreeIndex<TestTree> index = TreeIndex.of(trees);
+        assertEquals(TreeIndex.NONE, index.depth(index.indexOf("a")));
+        assertEquals(index.indexOf("b"), index.parent(index.indexOf("a")));
+        assertEquals(2, index.rootCount());
+    }
+
+    @Test
+    void parallelSameAsSequential() {
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("0", null));
+        for (int i = 1; i < 20_000; i++) {
+            trees.add(new TestTree(String.valueOf(i), String.valueOf((i - 1) / 3)));
+        }
+        TreeNodeWrapper<TestTree> wrapper = TreeNodeWrapperRegistry.getWrapper(TestTree.class);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TreeIndex<TestTree> sequential = TreeIndex.of(trees, wrapper);
+            TreeIndex<TestTree> parallel = TreeIndex.of(trees, wrapper, pool);
+            for (int i = 0; i < trees.size(); i++) {
+                assertEquals(sequential.parent(i), parallel.parent(i));
+                assertEquals(sequential.depth(i), parallel.depth(i));
+                assertEquals(sequential.children(i), parallel.children(i));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void attachChildren() {
+        List<TestTree> trees = trees();
+        TreeIndex<TestTree> index = TreeIndex.of(trees);
+        index.attachChildren();
+        assertEquals("1(2(3())2.1())x()", TestTreeUtilTest.describe(index.roots()));
+        assertNull(trees.get(2).getChildren());
+        // 孩子集合不是索引上的视图，可以修改
+        trees.get(0).getChildren().add(trees.get(4));
+        assertEquals("1(2(3())2.1()x())x()", TestTreeUtilTest.describe(index.roots()));
+
+        assertEquals(Collections.singletonList(trees.get(4)), index.rootsOfPid("y"));
+        // 没有无父节点的节点满足条件时，整体过滤
+        assertEquals(Arrays.asList(trees.get(1), trees.get(3)), index.rootsOfPid("1"));
+        assertTrue(index.rootsOfPid("missing").isEmpty());
+    }
+
+    @Test
+    void empty() {
+        TreeIndex<TestTree> index = TreeIndex.of(null);
+        assertEquals(0, index.size());
+        assertTrue(index.roots().isEmpty());
+        assertTrue(index.rootsOfPid(null).isEmpty());
+        index.attachChildren();
+    }
+
+    private List<TestTree> trees() {
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("1", null));
+        trees.add(new TestTree("2", "1"));
+        trees.add(new TestTree("3", "2"));
+        trees.add(new TestTree("2.1", "1"));
+        trees.add(new TestTree("x", "y"));
+        return trees;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sharkman.nodetree.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeIntervalIndexTest {
+
+    @Test
+    void ancestors() {
+        TreeIntervalIndex<TestTree> index = TreeIntervalIndex.of(trees());
+        assertTrue(index.isAncestor("1", "3"));
+        assertTrue(index.isAncestor("2", "3"));
+        assertFalse(index.isAncestor("3", "2"));
+        assertFalse(index.isAncestor("1", "1"));
+        assertTrue(index.isInSubtree("1", "1"));
+        assertFalse(index.isAncestor("2.1", "3"));
+        assertFalse(index.isAncestor("1", "x"));
+        assertFalse(index.isAncestor("missing", "3"));
+
+        assertEquals(4, index.subtreeSize("1"));
+        assertEquals(1, index.subtreeSize("3"));
+        assertEquals(Arrays.asList("2", "3", "2.1"), ids(index.descendantsOf("1")));
+        assertTrue(index.descendantsOf("3").isEmpty());
+    }
+
+    /**
+     * 成环的节点无法到达，不在任何区间内
+     */
+    @Test
+    void cycle() {
+        List<TestTree> trees = trees();
+        trees.add(new TestTree("a", "b"));
+        trees.add(new TestTree("b", "a"));
+        TreeIntervalIndex<TestTree> index = TreeIntervalIndex.of(trees);
+        assertEquals(TreeIntervalIndex.NONE, index.enter(index.indexOf("a")));
+        assertFalse(index.isAncestor("a", "b"));
+        assertFalse(index.isInSubtree("a", "a"));
+        assertEquals(0, index.subtreeSize("a"));
+        assertTrue(index.descendantsOf("a").isEmpty());
+    }
+
+    /**
+     * 由已构造的树构造，与由列表构造一致
+     */
+    @Test
+    void ofTree() {
+        List<TestTree> roots = TreeUtil.buildTree(trees());
+        TreeIntervalIndex<TestTree> fromTree = TreeIntervalIndex.ofTree(roots);
+        TreeIntervalIndex<TestTree> fromList = TreeIntervalIndex.of(trees());
+        for (String id : Arrays.asList("1", "2", "3", "2.1", "x")) {
+            assertEquals(fromList.subtreeSize(id), fromTree.subtreeSize(id));
+            assertEquals(ids(fromList.descendantsOf(id)), ids(fromTree.descendantsOf(id)));
+            for (String other : Arrays.asList("1", "2", "3", "2.1", "x")) {
+                assertEquals(fromList.isAncestor(id, other), fromTree.isAncestor(id, other));
+            }
+        }
+        roots.get(0).getChildren().add(roots.get(0));
+        assertThrows(IllegalStateException.class, () -> TreeIntervalIndex.ofTree(roots));
+    }
+
+    private static List<String> ids(List<TestTree> nodes) {
+        return nodes.stream().map(TestTree::getId).collect(Collectors.toList());
+    }
+
+    private List<TestTree> trees() {
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("1", null));
+        trees.add(new TestTree("2", "1"));
+        trees.add(new TestTree("3", "2"));
+        trees.add(new TestTree("2.1", "1"));
+        trees.add(new TestTree("x", "y"));
+        return trees;
+    }
+}
@@ -0,0 +1,151 @@
+package com.sharkman.nodetree.core;
+
+import com.sharkman.nodetree.annotation.NodeChildren;
+import com.sharkman.nodetree.annotation.NodeID;
+import com.sharkman.nodetree.annotation.NodePID;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeNodeWrapperAnnotationTest {
+
+    @Test
+    void accessors() {
+        AnnotatedNode node = new AnnotatedNode(1L, null);
+        TreeNodeWrapper<AnnotatedNode> wrapper = TreeNodeWrapperAnnotation.from(node);
+        assertEquals("1", wrapper.getId(node));
+        assertNull(wrapper.getPId(node));
+        assertNull(wrapper.getChildren(node));
+
+        List<AnnotatedNode> children = new ArrayList<>();
+        wrapper.setChildren(children, node);
+        assertSame(children, wrapper.getChildren(node));
+    }
+
+    @Test
+    void primitiveId() {
+        PrimitiveNode node = new PrimitiveNode(7, 3);
+        TreeNodeWrapper<PrimitiveNode> wrapper = TreeNodeWrapperAnnotation.from(node);
+        assertEquals("7", wrapper.getId(node));
+        assertEquals("3", wrapper.getPId(node));
+    }
+
+    @Test
+    void buildTree() {
+        List<AnnotatedNode> nodes = new ArrayList<>();
+        nodes.add(new AnnotatedNode(1L, null));
+        nodes.add(new AnnotatedNode(2L, 1L));
+        nodes.add(new AnnotatedNode(3L, 1L));
+        nodes.add(new AnnotatedNode(4L, 3L));
+        AnnotatedNode root = TreeUtil.buildTreeOfRootPId(nodes, null);
+        assertEquals(1L, root.getId());
+        assertEquals(2, root.getChildren().size());
+        assertEquals(1, root.getChildren().get(1).getChildren().size());
+    }
+
+    @Test
+    void longKey() {
+        AnnotatedNode node = new AnnotatedNode(5L, null);
+        LongKeyTreeNodeWrapper<AnnotatedNode> wrapper =
+                (LongKeyTreeNodeWrapper<AnnotatedNode>) TreeNodeWrapperAnnotation.from(node);
+        assertTrue(wrapper.isLongKey());
+        assertTrue(wrapper.hasId(node));
+        assertEquals(5L, wrapper.getLongId(node));
+        assertFalse(wrapper.hasPId(node));
+
+        PrimitiveNode primitive = new PrimitiveNode(7, 3);
+        LongKeyTreeNodeWrapper<PrimitiveNode> primitiveWrapper =
+                (LongKeyTreeNodeWrapper<PrimitiveNode>) TreeNodeWrapperAnnotation.from(primitive);
+        assertTrue(primitiveWrapper.isLongKey());
+        assertEquals(7L, primitiveWrapper.getLongId(primitive));
+        assertEquals(3L, primitiveWrapper.getLongPId(primitive));
+    }
+
+    /**
+     * long 键与字符串键的查找结果一致，非规范写法的 id 不能匹配
+     */
+    @Test
+    void buildTreeWithLongKey() {
+        List<AnnotatedNode> nodes = new ArrayList<>();
+        nodes.add(new AnnotatedNode(-1L, null));
+        nodes.add(new AnnotatedNode(10L, -1L));
+        nodes.add(new AnnotatedNode(11L, -1L));
+        nodes.add(new AnnotatedNode(12L, 11L));
+        AnnotatedNode root = TreeUtil.buildTreeOfRootId(nodes, "-1");
+        assertEquals(2, root.getChildren().size());
+        assertEquals(12L, root.getChildren().get(1).getChildren().get(0).getId());
+
+        assertEquals(2, TreeUtil.buildTreeOfRootPIdForList(nodes, "-1").size());
+        assertNull(TreeUtil.buildTreeOfRootPIdForList(nodes, "+10"));
+        assertThrows(NullPointerException.class, () -> TreeUtil.buildTreeOfRootId(nodes, "011"));
+        assertThrows(NullPointerException.class, () -> TreeUtil.buildTreeOfRootId(nodes, "abc"));
+    }
+
+    @Test
+    void missingAnnotation() {
+        assertThrows(IllegalArgumentException.class, () -> TreeNodeWrapperAnnotation.from(new Object()));
+    }
+
+    public static class AnnotatedNode {
+        @NodeID
+        private final Long id;
+        @NodePID
+        private final Long pid;
+        @NodeChildren
+        private List<AnnotatedNode> children;
+
+        AnnotatedNode(Long id, Long pid) {
+            this.id = id;
+            this.pid = pid;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Long getPid() {
+            return pid;
+        }
+
+        public List<AnnotatedNode> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<AnnotatedNode> children) {
+            this.children = children;
+        }
+    }
+
+    public static class PrimitiveNode {
+        @NodeID
+        private final int id;
+        @NodePID
+        private final long pid;
+        @NodeChildren
+        private List<PrimitiveNode> children;
+
+        PrimitiveNode(int id, long pid) {
+            this.id = id;
+            this.pid = pid;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public long getPid() {
+            return pid;
+        }
+
+        public List<PrimitiveNode> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<PrimitiveNode> children) {
+            this.children = children;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.sharkman.nodetree.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeNodeWrapperRegistryTest {
+
+    @Test
+    void resolveOnce() {
+        TreeNodeWrapper<TestTree> first = TreeNodeWrapperRegistry.getWrapper(TestTree.class);
+        TreeNodeWrapper<TestTree> second = TreeNodeProxy.createNodeWrapper(new TestTree("1", null));
+        assertSame(first, second);
+
+        TreeNodeWrapper<TreeNodeWrapperAnnotationTest.AnnotatedNode> annotated =
+                TreeNodeWrapperRegistry.getWrapper(TreeNodeWrapperAnnotationTest.AnnotatedNode.class);
+        assertSame(annotated, TreeNodeWrapperRegistry.getWrapper(TreeNodeWrapperAnnotationTest.AnnotatedNode.class));
+    }
+
+    @Test
+    void customWrapper() {
+        assertThrows(IllegalArgumentException.class, () -> TreeNodeWrapperRegistry.getWrapper(PlainNode.class));
+        TreeNodeWrapperRegistry.register(PlainNode.class, new PlainNodeWrapper());
+        try {
+            List<PlainNode> nodes = new ArrayList<>();
+            nodes.add(new PlainNode("1", null));
+            nodes.add(new PlainNode("2", "1"));
+            nodes.add(new PlainNode("3", "1"));
+            PlainNode root = TreeUtil.buildTreeOfRootPId(nodes, null);
+            assertEquals("1", root.key);
+            assertEquals(2, root.nodes.size());
+        } finally {
+            TreeNodeWrapperRegistry.unregister(PlainNode.class);
+        }
+        assertThrows(IllegalArgumentException.class, () -> TreeNodeWrapperRegistry.getWrapper(PlainNode.class));
+    }
+
+    private static class PlainNode {
+        private final String key;
+        private final String parentKey;
+        private List<PlainNode> nodes;
+
+        PlainNode(String key, String parentKey) {
+            this.key = key;
+            this.parentKey = parentKey;
+        }
+    }
+
+    private static class PlainNodeWrapper implements TreeNodeWrapper<PlainNode> {
+        @Override
+        public String getId(PlainNode targetObj) {
+            return targetObj.key;
+        }
+
+        @Override
+        public String getPId(PlainNode targetObj) {
+            return targetObj.parentKey;
+        }
+
+        @Override
+        public List<PlainNode> getChildren(PlainNode targetObj) {
+            return targetObj.nodes;
+        }
+
+        @Override
+        public void setChildren(List<PlainNode> children, PlainNode targetObj) {
+            targetObj.nodes = children;
+        }
+    }
+}
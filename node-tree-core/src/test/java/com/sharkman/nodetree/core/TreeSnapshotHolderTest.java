@@ -0,0 +1,121 @@
+package com.sharkman.nodetree.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeSnapshotHolderTest {
+
+    @Test
+    void snapshot() {
+        TreeSnapshot<TestTree> snapshot = TreeSnapshotHolder.of(trees()).current();
+        assertEquals(0, snapshot.version());
+        assertEquals(6, snapshot.size());
+        assertEquals("1(2(3())4())5(6())", describe(snapshot.roots()));
+        assertEquals("3", snapshot.get("3").getId());
+        assertNull(snapshot.find("missing"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.roots().clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.find("1").getChildren().remove(0));
+        // 不修改节点对象
+        assertNull(snapshot.get("1").getChildren());
+    }
+
+    /**
+     * 父 id 不变时只复制路径，其余子树共享
+     */
+    @Test
+    void update() {
+        TreeSnapshotHolder<TestTree> holder = TreeSnapshotHolder.of(trees());
+        TreeSnapshot<TestTree> before = holder.current();
+        TestTree changed = new TestTree("3", "2");
+        TreeSnapshot<TestTree> after = holder.update(changed);
+
+        assertEquals(1, after.version());
+        assertSame(after, holder.current());
+        assertSame(changed, after.get("3"));
+        assertNotSame(changed, before.get("3"));
+        assertNotSame(before.find("1"), after.find("1"));
+        assertNotSame(before.find("2"), after.find("2"));
+        assertSame(before.find("4"), after.find("4"));
+        assertSame(before.find("5"), after.find("5"));
+        assertEquals(describe(before.roots()), describe(after.roots()));
+    }
+
+    @Test
+    void structuralChange() {
+        TreeSnapshotHolder<TestTree> holder = TreeSnapshotHolder.of(trees());
+        TreeSnapshot<TestTree> before = holder.current();
+        TestTree payload = new TestTree("2", "1");
+        TreeSnapshot<TestTree> after = holder.apply(Arrays.asList(
+                TreeChangeEvent.update(payload),
+                TreeChangeEvent.update(new TestTree("4", "5")),
+                TreeChangeEvent.insert(new TestTree("7", "3")),
+                TreeChangeEvent.delete("6")));
+        assertEquals(1, after.version());
+        assertEquals("1(2(3(7())))5(4())", describe(after.roots()));
+        // 结构改变前的替换保留
+        assertSame(payload, after.get("2"));
+        assertEquals("1(2(3())4())5(6())", describe(before.roots()));
+
+        after = holder.publish(trees());
+        assertEquals(2, after.version());
+        assertEquals(describe(before.roots()), describe(after.roots()));
+    }
+
+    /**
+     * 新增、删除节点同样只复制路径
+     */
+    @Test
+    void structuralChangeCopiesPath() {
+        TreeSnapshotHolder<TestTree> holder = TreeSnapshotHolder.of(trees());
+        TreeSnapshot<TestTree> before = holder.current();
+        TreeSnapshot<TestTree> inserted = holder.apply(Collections.singletonList(
+                TreeChangeEvent.insert(new TestTree("7", "3"))));
+        assertSame(before.find("4"), inserted.find("4"));
+        assertSame(before.find("5"), inserted.find("5"));
+        assertNotSame(before.find("1"), inserted.find("1"));
+
+        // 只删除节点本身，孩子成为根节点，重新加入后孩子挂回原处
+        TreeSnapshot<TestTree> deleted = holder.apply(Collections.singletonList(TreeChangeEvent.delete("2")));
+        assertEquals("1(4())5(6())3(7())", describe(deleted.roots()));
+        assertSame(inserted.find("3"), deleted.find("3"));
+        assertSame(before.find("5"), deleted.find("5"));
+        TreeSnapshot<TestTree> restored = holder.update(new TestTree("2", "1"));
+        assertEquals("1(4()2(3(7())))5(6())", describe(restored.roots()));
+    }
+
+    @Test
+    void empty() {
+        TreeSnapshotHolder<TestTree> holder = TreeSnapshotHolder.of(null);
+        assertEquals(0, holder.current().size());
+        assertTrue(holder.current().roots().isEmpty());
+        TreeSnapshot<TestTree> snapshot = holder.update(new TestTree("1", null));
+        assertEquals("1()", describe(snapshot.roots()));
+        assertEquals(1, holder.apply(new ArrayList<>()).version());
+    }
+
+    static String describe(List<PersistentTree.Node<TestTree>> nodes) {
+        StringBuilder builder = new StringBuilder();
+        for (PersistentTree.Node<TestTree> node : nodes) {
+            builder.append(node.getValue().getId()).append('(').append(describe(node.getChildren())).append(')');
+        }
+        return builder.toString();
+    }
+
+    private List<TestTree> trees() {
+        List<TestTree> trees = new ArrayList<>();
+        trees.add(new TestTree("1", null));
+        trees.add(new TestTree("2", "1"));
+        trees.add(new TestTree("3", "2"));
+        trees.add(new TestTree("4", "1"));
+        trees.add(new TestTree("5", null));
+        trees.add(new TestTree("6", "5"));
+        return trees;
+    }
+}
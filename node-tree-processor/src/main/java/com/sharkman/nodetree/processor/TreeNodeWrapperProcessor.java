@@ -0,0 +1,290 @@
+package com.sharkman.nodetree.processor;
+
+import com.sharkman.nodetree.annotation.NodeChildren;
+import com.sharkman.nodetree.annotation.NodeID;
+import com.sharkman.nodetree.annotation.NodePID;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * <p> Description:树节点包装器注解处理器</p>
+ * <p> 为使用 {@link NodeID}、{@link NodePID}、{@link NodeChildren} 标注属性的类生成
+ * {@code GeneratedTreeNodeWrapper} 实现，并写入 {@link java.util.ServiceLoader} 索引，运行时无需反射。
+ * getter / setter 命名规则与反射版本一致。</p>
+ * <p> CreationTime: 2026/10/17 11:32 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public final class TreeNodeWrapperProcessor extends AbstractProcessor {
+    private static final String WRAPPER_INTERFACE = "com.sharkman.nodetree.core.GeneratedTreeNodeWrapper";
+    private static final String SERVICE_FILE = "META-INF/services/" + WRAPPER_INTERFACE;
+    private static final String WRAPPER_SUFFIX = "_TreeNodeWrapper";
+    private static final String SKIP_MESSAGE = "%s 未生成树节点包装器：%s，运行时将使用反射";
+
+    private static final String STR_GET = "get";
+    private static final String STR_SET = "set";
+
+    private Filer filer;
+    private Messager messager;
+    private Elements elements;
+    private Types types;
+
+    /**
+     * 本次编译生成的包装器全限定名
+     */
+    private final Set<String> wrappers = new TreeSet<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new HashSet<>(Arrays.asList(
+                NodeID.class.getCanonicalName(),
+                NodePID.class.getCanonicalName(),
+                NodeChildren.class.getCanonicalName()));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        Set<TypeElement> nodeTypes = new LinkedHashSet<>();
+        collectNodeTypes(roundEnv, NodeID.class, nodeTypes);
+        collectNodeTypes(roundEnv, NodePID.class, nodeTypes);
+        collectNodeTypes(roundEnv, NodeChildren.class, nodeTypes);
+        for (TypeElement nodeType : nodeTypes) {
+            generate(nodeType);
+        }
+        // 不独占注解，lombok 等处理器仍需处理
+        return false;
+    }
+
+    private void collectNodeTypes(
+            RoundEnvironment roundEnv, Class<? extends Annotation> ann, Set<TypeElement> nodeTypes) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(ann)) {
+            // 与反射版本一致，只识别属性上的注解
+            if (element.getKind() == ElementKind.FIELD) {
+                nodeTypes.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+    }
+
+    /**
+     * 生成包装器源码
+     *
+     * @param nodeType 节点类
+     */
+    private void generate(TypeElement nodeType) {
+        String reason = checkAccessible(nodeType);
+        if (null != reason) {
+            skip(nodeType, reason);
+            return;
+        }
+        VariableElement idField = findField(nodeType, NodeID.class);
+        VariableElement pidField = findField(nodeType, NodePID.class);
+        VariableElement childrenField = findField(nodeType, NodeChildren.class);
+        if (null == idField || null == pidField || null == childrenField) {
+            skip(nodeType, "缺少 NodeID、NodePID 或 NodeChildren 注解");
+            return;
+        }
+        TypeMirror listType = types.erasure(elements.getTypeElement("java.util.List").asType());
+        if (!types.isAssignable(types.erasure(childrenField.asType()), listType)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "NodeChildren 注解的属性必须为 List", childrenField);
+            return;
+        }
+
+        String packageName = elements.getPackageOf(nodeType).getQualifiedName().toString();
+        String wrapperName = flatName(nodeType) + WRAPPER_SUFFIX;
+        String qualifiedWrapperName = packageName.isEmpty() ? wrapperName : packageName + "." + wrapperName;
+        String source = new WrapperSourceBuilder(packageName, wrapperName, nodeType.getQualifiedName().toString())
+                .id(getterName(idField), idField.asType().getKind().isPrimitive())
+                .pid(getterName(pidField), pidField.asType().getKind().isPrimitive())
+                .longKey(isIntegral(idField.asType()) && isIntegral(pidField.asType()))
+                .children(getterName(childrenField), setterName(childrenField), childrenField.asType().toString())
+                .build();
+        try {
+            JavaFileObject file = filer.createSourceFile(qualifiedWrapperName, nodeType);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+            wrappers.add(qualifiedWrapperName);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "生成树节点包装器失败：" + e.getMessage(), nodeType);
+        }
+    }
+
+    /**
+     * 检查生成的包装器能否访问节点类
+     *
+     * @param nodeType 节点类
+     * @return 不能访问的原因，可以访问返回 null
+     */
+    private String checkAccessible(TypeElement nodeType) {
+        if (!nodeType.getTypeParameters().isEmpty()) {
+            return "不支持泛型类";
+        }
+        Element current = nodeType;
+        while (current instanceof TypeElement) {
+            TypeElement type = (TypeElement) current;
+            if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+                return "不支持局部类或匿名类";
+            }
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                return "类不可访问";
+            }
+            if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)
+                    && type.getKind() == ElementKind.CLASS) {
+                return "不支持非静态内部类";
+            }
+            current = type.getEnclosingElement();
+        }
+        return null;
+    }
+
+    /**
+     * 是否为 long、Long、int、Integer
+     *
+     * @param type 属性类型
+     * @return 是否可按 long 读取
+     */
+    private boolean isIntegral(TypeMirror type) {
+        TypeKind kind = type.getKind();
+        if (kind == TypeKind.LONG || kind == TypeKind.INT) {
+            return true;
+        }
+        if (kind != TypeKind.DECLARED) {
+            return false;
+        }
+        String name = types.erasure(type).toString();
+        return Long.class.getName().equals(name) || Integer.class.getName().equals(name);
+    }
+
+    private void skip(TypeElement nodeType, String reason) {
+        messager.printMessage(Diagnostic.Kind.WARNING,
+                String.format(SKIP_MESSAGE, nodeType.getQualifiedName(), reason), nodeType);
+    }
+
+    private VariableElement findField(TypeElement nodeType, Class<? extends Annotation> ann) {
+        for (Element element : nodeType.getEnclosedElements()) {
+            if (element.getKind() == ElementKind.FIELD && null != element.getAnnotation(ann)) {
+                return (VariableElement) element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 嵌套类使用下划线连接外部类名
+     *
+     * @param nodeType 节点类
+     * @return 扁平类名
+     */
+    private static String flatName(TypeElement nodeType) {
+        StringBuilder name = new StringBuilder(nodeType.getSimpleName());
+        Element enclosing = nodeType.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.toString();
+    }
+
+    private static String getterName(VariableElement field) {
+        return STR_GET + upperFirstCase(field.getSimpleName().toString());
+    }
+
+    private static String setterName(VariableElement field) {
+        return STR_SET + upperFirstCase(field.getSimpleName().toString());
+    }
+
+    private static String upperFirstCase(String str) {
+        char first = str.charAt(0);
+        if (first >= 'a' && first <= 'z') {
+            return Character.toUpperCase(first) + str.substring(1);
+        }
+        return str;
+    }
+
+    /**
+     * 写入 ServiceLoader 索引，保留增量编译时已存在且仍有效的条目
+     */
+    private void writeServiceFile() {
+        if (wrappers.isEmpty()) {
+            return;
+        }
+        Set<String> entries = new TreeSet<>(wrappers);
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while (null != (line = reader.readLine())) {
+                    line = line.trim();
+                    if (!line.isEmpty() && null != elements.getTypeElement(line)) {
+                        entries.add(line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 首次编译时索引文件不存在
+        }
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "写入树节点包装器索引失败：" + e.getMessage());
+        }
+    }
+}
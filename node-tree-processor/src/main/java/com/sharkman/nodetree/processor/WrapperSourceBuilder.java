@@ -0,0 +1,138 @@
+package com.sharkman.nodetree.processor;
+
+/**
+ * <p> Description:包装器源码构造器</p>
+ * <p> CreationTime: 2026/10/17 11:48 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class WrapperSourceBuilder {
+    private static final String LIST = "java.util.List";
+
+    private final String packageName;
+    private final String wrapperName;
+    private final String nodeType;
+
+    private String idGetter;
+    private boolean idPrimitive;
+    private String pidGetter;
+    private boolean pidPrimitive;
+    private String childrenGetter;
+    private String childrenSetter;
+    private String childrenType;
+    private boolean longKey;
+
+    WrapperSourceBuilder(String packageName, String wrapperName, String nodeType) {
+        this.packageName = packageName;
+        this.wrapperName = wrapperName;
+        this.nodeType = nodeType;
+    }
+
+    WrapperSourceBuilder id(String getter, boolean primitive) {
+        this.idGetter = getter;
+        this.idPrimitive = primitive;
+        return this;
+    }
+
+    WrapperSourceBuilder pid(String getter, boolean primitive) {
+        this.pidGetter = getter;
+        this.pidPrimitive = primitive;
+        return this;
+    }
+
+    /**
+     * id 与父 id 都是 long、Long、int、Integer 时生成 long 键的读取方法
+     *
+     * @param longKey 是否使用 long 键
+     * @return this
+     */
+    WrapperSourceBuilder longKey(boolean longKey) {
+        this.longKey = longKey;
+        return this;
+    }
+
+    WrapperSourceBuilder children(String getter, String setter, String fieldType) {
+        this.childrenGetter = getter;
+        this.childrenSetter = setter;
+        this.childrenType = fieldType;
+        return this;
+    }
+
+    String build() {
+        String nodeList = LIST + "<" + nodeType + ">";
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n")
+                .append(" * 由 node-tree-processor 根据 {@link ").append(nodeType).append("} 的注解生成，请勿修改\n")
+                .append(" */\n")
+                .append("public final class ").append(wrapperName).append("\n")
+                .append("        implements com.sharkman.nodetree.core.GeneratedTreeNodeWrapper<")
+                .append(nodeType).append(">");
+        if (longKey) {
+            source.append(",\n        com.sharkman.nodetree.core.LongKeyTreeNodeWrapper<").append(nodeType).append(">");
+        }
+        source.append(" {\n\n");
+
+        source.append("    @Override\n")
+                .append("    public Class<").append(nodeType).append("> getNodeType() {\n")
+                .append("        return ").append(nodeType).append(".class;\n")
+                .append("    }\n\n");
+
+        appendKeyGetter(source, "getId", idGetter, idPrimitive);
+        appendKeyGetter(source, "getPId", pidGetter, pidPrimitive);
+        if (longKey) {
+            source.append("    @Override\n")
+                    .append("    public boolean isLongKey() {\n")
+                    .append("        return true;\n")
+                    .append("    }\n\n");
+            appendLongKeyGetter(source, "Id", idGetter, idPrimitive);
+            appendLongKeyGetter(source, "PId", pidGetter, pidPrimitive);
+        }
+
+        source.append("    @Override\n")
+                .append("    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public ").append(nodeList).append(" getChildren(").append(nodeType).append(" targetObj) {\n")
+                .append("        return (").append(nodeList).append(") (").append(LIST)
+                .append("<?>) targetObj.").append(childrenGetter).append("();\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public void setChildren(").append(nodeList).append(" children, ")
+                .append(nodeType).append(" targetObj) {\n")
+                .append("        targetObj.").append(childrenSetter).append("((").append(childrenType)
+                .append(") (").append(LIST).append("<?>) children);\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private void appendKeyGetter(StringBuilder source, String name, String getter, boolean primitive) {
+        source.append("    @Override\n")
+                .append("    public String ").append(name).append("(").append(nodeType).append(" targetObj) {\n");
+        if (primitive) {
+            source.append("        return String.valueOf(targetObj.").append(getter).append("());\n");
+        } else {
+            source.append("        Object key = targetObj.").append(getter).append("();\n")
+                    .append("        return null == key ? null : key.toString();\n");
+        }
+        source.append("    }\n\n");
+    }
+
+    private void appendLongKeyGetter(StringBuilder source, String name, String getter, boolean primitive) {
+        source.append("    @Override\n")
+                .append("    public boolean has").append(name).append("(").append(nodeType).append(" targetObj) {\n")
+                .append("        return ").append(primitive ? "true" : "null != targetObj." + getter + "()")
+                .append(";\n")
+                .append("    }\n\n");
+        source.append("    @Override\n")
+                .append("    public long getLong").append(name).append("(").append(nodeType).append(" targetObj) {\n")
+                .append("        return targetObj.").append(getter).append("()")
+                .append(primitive ? "" : ".longValue()").append(";\n")
+                .append("    }\n\n");
+    }
+}
@@ -3,14 +3,19 @@ package com.sharkman.nodetree.enhance;
 import com.sharkman.nodetree.annotation.NodeTree;
 import com.sharkman.nodetree.annotation.RootID;
 import com.sharkman.nodetree.annotation.RootPID;
+import com.sharkman.nodetree.annotation.TreeEngine;
 import com.sharkman.nodetree.core.Treeable;
 import com.sharkman.nodetree.runner.AutoData;
 import com.sharkman.nodetree.runner.CommonTreeNode;
 import com.sharkman.nodetree.runner.TreeNode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +29,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class BusinessService {
+    private final AtomicInteger invocations = new AtomicInteger();
 
     /**
      * 模拟查找所有节点
@@ -106,6 +112,132 @@ public class BusinessService {
         return mockDataForPid(nodesCount, pid);
     }
 
+    /**
+     * 模拟查找所有节点，以索引方式构造
+     *
+     * @param nodesCount 节点数量
+     * @return 所有节点
+     */
+    @NodeTree(pid = "-", engine = TreeEngine.INDEX)
+    public List<Treeable> findAllNodesIndex(int nodesCount) {
+        return mockData(nodesCount);
+    }
+
+    /**
+     * 模拟查找所有节点，节点数量达到阈值时并行构造
+     *
+     * @param nodesCount 节点数量
+     * @return 所有节点
+     */
+    @NodeTree(id = "0", parallelThreshold = 1)
+    public List<Treeable> findSpecNodesParallel(int nodesCount) {
+        return mockData(nodesCount);
+    }
+
+    /**
+     * 模拟异步查找所有节点
+     *
+     * @param nodesCount 节点数量
+     * @return 所有节点
+     */
+    @NodeTree(pid = "-")
+    public CompletableFuture<List<Treeable>> findAllNodesAsync(int nodesCount) {
+        return CompletableFuture.supplyAsync(() -> mockData(nodesCount));
+    }
+
+    /**
+     * 模拟响应式查找所有节点
+     *
+     * @param nodesCount 节点数量
+     * @return 所有节点
+     */
+    @NodeTree(pid = "-")
+    public Mono<List<Treeable>> findAllNodesMono(int nodesCount) {
+        return Mono.fromSupplier(() -> mockData(nodesCount));
+    }
+
+    /**
+     * 模拟逐条读取所有节点
+     *
+     * @param nodesCount 节点数量
+     * @return 所有节点
+     */
+    @NodeTree
+    public Flux<Treeable> findAllNodesFlux(int nodesCount, @RootPID String pid) {
+        return Flux.defer(() -> Flux.fromIterable(mockDataForPid(nodesCount, pid)));
+    }
+
+    /**
+     * 模拟查找所有节点，结果缓存
+     *
+     * @param nodesCount 节点数量
+     * @return 所有节点
+     */
+    @NodeTree(pid = "-", cacheName = "nodes")
+    public List<Treeable> findAllNodesCached(int nodesCount) {
+        invocations.incrementAndGet();
+        return mockData(nodesCount);
+    }
+
+    /**
+     * 模拟查找所有节点，根节点取自参数对象，结果缓存
+     *
+     * @param nodesCount  节点数量
+     * @param paramsOfPid 参数
+     * @return 所有节点
+     */
+    @NodeTree(cacheName = "params")
+    public List<Treeable> findAllNodesForParamCached(int nodesCount, ParamsOfPid paramsOfPid) {
+        invocations.incrementAndGet();
+        return mockData(nodesCount);
+    }
+
+    /**
+     * 模拟查找所有节点，结果缓存 1 秒
+     *
+     * @param nodesCount 节点数量
+     * @return 所有节点
+     */
+    @NodeTree(pid = "-", cacheName = "expiring", cacheTtl = 1)
+    public List<Treeable> findAllNodesExpiring(int nodesCount) {
+        invocations.incrementAndGet();
+        return mockData(nodesCount);
+    }
+
+    /**
+     * 模拟查找所有节点，最多缓存 2 个结果
+     *
+     * @param nodesCount 节点数量
+     * @return 所有节点
+     */
+    @NodeTree(pid = "-", cacheName = "bounded", cacheMaxEntries = 2)
+    public List<Treeable> findAllNodesBounded(int nodesCount) {
+        invocations.incrementAndGet();
+        return mockData(nodesCount);
+    }
+
+    /**
+     * 模拟异步查找所有节点，ready 完成后才返回节点，结果缓存
+     *
+     * @param nodesCount 节点数量
+     * @param ready      查询完成的信号
+     * @return 所有节点
+     */
+    @NodeTree(pid = "-", cacheName = "async")
+    public CompletableFuture<List<Treeable>> findAllNodesAsyncCached(int nodesCount, CompletableFuture<Void> ready) {
+        invocations.incrementAndGet();
+        return ready.thenApply(v -> mockData(nodesCount));
+    }
+
+    /**
+     * 带缓存的方法实际执行的次数
+     *
+     * @return 执行次数
+     */
+    public int invocations() {
+        return invocations.get();
+    }
+
     private List<Treeable> mockDataForPid(int nodesCount, String pid) {
         int maxChild = 2;
         List<Treeable> result = AutoData.makeRandomNodes(nodesCount, maxChild, pid);
@@ -0,0 +1,57 @@
+package com.sharkman.nodetree.aspect;
+
+import com.sharkman.nodetree.annotation.NodeTree;
+import com.sharkman.nodetree.annotation.TreeEngine;
+import com.sharkman.nodetree.enhance.BusinessService;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"nodetree.index-threshold=8", "nodetree.cache.max-entries=1"})
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class NodeTreeConfigTest {
+
+    private final ApplicationContext context;
+    private final TreeCreatorSelector treeCreatorSelector;
+    private final NodeTreeCache nodeTreeCache;
+    private final BusinessService businessService;
+
+    /**
+     * nodetree.* 配置绑定后用于选择构造方式
+     */
+    @Test
+    void bindProperties() throws NoSuchMethodException {
+        NodeTree nodeTree = BusinessService.class.getMethod("findAllNodes", int.class).getAnnotation(NodeTree.class);
+        assertEquals(TreeEngine.INDEX, treeCreatorSelector.select(nodeTree, 8).engine());
+        assertEquals(TreeEngine.SEQUENTIAL, treeCreatorSelector.select(nodeTree, 7).engine());
+    }
+
+    /**
+     * 容器中已有的 NodeTreeCache 替换默认的缓存，配置中的容量不再生效
+     */
+    @Test
+    void overrideCache() {
+        assertEquals(1, context.getBeansOfType(NodeTreeCache.class).size());
+        assertTrue(context.containsBean("customNodeTreeCache"));
+
+        nodeTreeCache.evictAll();
+        businessService.findAllNodesCached(30);
+        businessService.findAllNodesCached(31);
+        assertEquals(2, nodeTreeCache.size("nodes"));
+    }
+
+    @TestConfiguration
+    static class CustomBeans {
+        @Bean
+        NodeTreeCache customNodeTreeCache() {
+            return new NodeTreeCache(0, 10);
+        }
+    }
+}
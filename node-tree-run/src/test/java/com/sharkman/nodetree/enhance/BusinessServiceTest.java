@@ -8,10 +8,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -116,6 +118,44 @@ class BusinessServiceTest {
         assertEquals(nodesCount + 1, countNodes(result));
     }
 
+    /**
+     * 测试方法上指定构造方式及阈值
+     */
+    @Test
+    void findAllNodesWithEngine() {
+        int nodesCount = 20_000;
+        List<Treeable> result = businessService.findAllNodesIndex(nodesCount);
+        assertEquals(1, result.size());
+        assertEquals(nodesCount, TreeTraverseUtil.countNodes(result));
+        result.get(0).getChildren().clear();
+        assertEquals(1, TreeTraverseUtil.countNodes(result));
+
+        List<Treeable> parallel = businessService.findSpecNodesParallel(nodesCount);
+        assertEquals(1, parallel.size());
+        assertEquals(nodesCount, TreeTraverseUtil.countNodes(parallel));
+    }
+
+    /**
+     * 测试异步及响应式返回值
+     */
+    @Test
+    void findAllNodesAsync() throws Exception {
+        int nodesCount = 10;
+        List<Treeable> result = businessService.findAllNodesAsync(nodesCount).get(10, TimeUnit.SECONDS);
+        assertEquals(1, result.size());
+        assertEquals(nodesCount, TreeTraverseUtil.countNodes(result));
+
+        result = businessService.findAllNodesMono(nodesCount).block(Duration.ofSeconds(10));
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals(nodesCount, TreeTraverseUtil.countNodes(result));
+
+        result = businessService.findAllNodesFlux(nodesCount, "-").collectList().block(Duration.ofSeconds(10));
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals(nodesCount, TreeTraverseUtil.countNodes(result));
+    }
+
     /**
      * 计算树上有多少个节点
      *
@@ -0,0 +1,176 @@
+package com.sharkman.nodetree.enhance;
+
+import com.sharkman.nodetree.aspect.NodeTreeCache;
+import com.sharkman.nodetree.core.TreeTraverseUtil;
+import com.sharkman.nodetree.core.Treeable;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class NodeTreeCacheTest {
+
+    private final BusinessService businessService;
+    private final NodeTreeCache nodeTreeCache;
+
+    /**
+     * 命中缓存时不执行方法，返回同一棵树
+     */
+    @Test
+    void hit() {
+        int before = businessService.invocations();
+        List<Treeable> first = businessService.findAllNodesCached(10);
+        List<Treeable> second = businessService.findAllNodesCached(10);
+        assertSame(first, second);
+        assertEquals(before + 1, businessService.invocations());
+        assertEquals(10, TreeTraverseUtil.countNodes(second));
+
+        businessService.findAllNodesCached(11);
+        assertEquals(before + 2, businessService.invocations());
+    }
+
+    /**
+     * 调用后修改参数对象，不影响已缓存的键
+     */
+    @Test
+    void mutatedParam() {
+        int before = businessService.invocations();
+        ParamsOfPid params = new ParamsOfPid();
+        params.setPid("-");
+        List<Treeable> first = businessService.findAllNodesForParamCached(10, params);
+        params.setPid("changed");
+
+        ParamsOfPid same = new ParamsOfPid();
+        same.setPid("-");
+        assertSame(first, businessService.findAllNodesForParamCached(10, same));
+        assertEquals(before + 1, businessService.invocations());
+        businessService.findAllNodesForParamCached(10, params);
+        assertEquals(before + 2, businessService.invocations());
+    }
+
+    /**
+     * 参数对象只有根节点以外的属性不同时，也是不同的键
+     */
+    @Test
+    void paramFields() {
+        int before = businessService.invocations();
+        ParamsOfPid a = new ParamsOfPid();
+        a.setId("a");
+        a.setPid("-");
+        ParamsOfPid b = new ParamsOfPid();
+        b.setId("b");
+        b.setPid("-");
+        List<Treeable> first = businessService.findAllNodesForParamCached(10, a);
+        assertNotSame(first, businessService.findAllNodesForParamCached(10, b));
+        assertEquals(before + 2, businessService.invocations());
+
+        ParamsOfPid same = new ParamsOfPid();
+        same.setId("a");
+        same.setPid("-");
+        assertSame(first, businessService.findAllNodesForParamCached(10, same));
+        assertEquals(before + 2, businessService.invocations());
+    }
+
+    @Test
+    void expire() throws InterruptedException {
+        int before = businessService.invocations();
+        List<Treeable> first = businessService.findAllNodesExpiring(10);
+        assertSame(first, businessService.findAllNodesExpiring(10));
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertNotSame(first, businessService.findAllNodesExpiring(10));
+        assertEquals(before + 2, businessService.invocations());
+    }
+
+    /**
+     * 超出容量时淘汰最久未使用的结果
+     */
+    @Test
+    void leastRecentlyUsed() {
+        int before = businessService.invocations();
+        List<Treeable> one = businessService.findAllNodesBounded(1);
+        businessService.findAllNodesBounded(2);
+        assertSame(one, businessService.findAllNodesBounded(1));
+        businessService.findAllNodesBounded(3);
+        assertEquals(2, nodeTreeCache.size("bounded"));
+        assertEquals(before + 3, businessService.invocations());
+
+        // 2 最久未使用，已被淘汰
+        assertSame(one, businessService.findAllNodesBounded(1));
+        businessService.findAllNodesBounded(2);
+        assertEquals(before + 4, businessService.invocations());
+    }
+
+    @Test
+    void evict() {
+        int before = businessService.invocations();
+        businessService.findAllNodesCached(20);
+        businessService.findAllNodesBounded(20);
+        nodeTreeCache.evict("nodes");
+        assertEquals(0, nodeTreeCache.size("nodes"));
+        businessService.findAllNodesCached(20);
+        businessService.findAllNodesBounded(20);
+        assertEquals(before + 3, businessService.invocations());
+
+        nodeTreeCache.evictAll();
+        assertEquals(0, nodeTreeCache.size("nodes"));
+        assertEquals(0, nodeTreeCache.size("bounded"));
+        businessService.findAllNodesCached(20);
+        businessService.findAllNodesBounded(20);
+        assertEquals(before + 5, businessService.invocations());
+    }
+
+    /**
+     * 执行方法期间清除缓存，完成后不写入清除前开始的调用结果
+     */
+    @Test
+    void evictWhileRunning() throws Exception {
+        nodeTreeCache.evict("async");
+        int before = businessService.invocations();
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        CompletableFuture<List<Treeable>> pending = businessService.findAllNodesAsyncCached(30, ready);
+        nodeTreeCache.evict("async");
+        ready.complete(null);
+        assertEquals(30, TreeTraverseUtil.countNodes(pending.get(10, TimeUnit.SECONDS)));
+        // 写入缓存在结果完成的回调中进行，等待回调执行
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertEquals(0, nodeTreeCache.size("async"));
+
+        CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+        businessService.findAllNodesAsyncCached(30, done).get(10, TimeUnit.SECONDS);
+        assertEquals(before + 2, businessService.invocations());
+    }
+
+    /**
+     * 异步结果完成后才写入缓存，写入的是已完成的结果
+     */
+    @Test
+    void asyncStoredAfterCompletion() throws Exception {
+        nodeTreeCache.evict("async");
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        CompletableFuture<List<Treeable>> pending = businessService.findAllNodesAsyncCached(10, ready);
+        assertFalse(pending.isDone());
+        assertEquals(0, nodeTreeCache.size("async"));
+
+        ready.complete(null);
+        List<Treeable> result = pending.get(10, TimeUnit.SECONDS);
+        assertEquals(10, TreeTraverseUtil.countNodes(result));
+        // 写入缓存在结果完成的回调中进行，可能晚于 get 返回
+        for (int i = 0; i < 100 && nodeTreeCache.size("async") == 0; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        CompletableFuture<List<Treeable>> cached = businessService.findAllNodesAsyncCached(10, new CompletableFuture<>());
+        assertEquals(1, nodeTreeCache.size("async"));
+        assertSame(result, cached.get(0, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,72 @@
+package com.sharkman.nodetree.enhance;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class NodeTreeMetricsTest {
+
+    private final BusinessService businessService;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 每次构造记录耗时及结果树的节点数量、根节点数量、未包含在树中的节点数量、层数
+     */
+    @Test
+    void recordBuild() {
+        int nodesCount = 10;
+        businessService.findAllNodesNoSign(nodesCount, "-");
+
+        Timer timer = meterRegistry.find("nodetree.build")
+                .tags("class", BusinessService.class.getName(), "method", "findAllNodesNoSign", "engine", "SEQUENTIAL").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals(nodesCount + 1, summary("nodetree.build.input", "findAllNodesNoSign").totalAmount());
+        assertEquals(nodesCount + 1, summary("nodetree.build.nodes", "findAllNodesNoSign").totalAmount());
+        assertEquals(2, summary("nodetree.build.roots", "findAllNodesNoSign").totalAmount());
+        assertEquals(0, summary("nodetree.build.excluded", "findAllNodesNoSign").totalAmount());
+        // 随机生成的树，每个节点最多 2 个孩子，10 个节点至少 4 层
+        double depth = summary("nodetree.build.depth", "findAllNodesNoSign").max();
+        assertTrue(depth >= 4 && depth <= nodesCount, String.valueOf(depth));
+    }
+
+    /**
+     * 指定根节点 id 时，所选子树以外的节点计入未包含的节点数量
+     */
+    @Test
+    void recordExcludedOutsideSubtree() {
+        int nodesCount = 10;
+        businessService.findSpecNodes(nodesCount);
+
+        assertEquals(nodesCount + 1, summary("nodetree.build.input", "findSpecNodes").totalAmount());
+        assertEquals(1, summary("nodetree.build.roots", "findSpecNodes").totalAmount());
+        assertEquals(1, summary("nodetree.build.excluded", "findSpecNodes").totalAmount());
+    }
+
+    private DistributionSummary summary(String name, String method) {
+        DistributionSummary summary = meterRegistry.find(name).tags("method", method).summary();
+        assertNotNull(summary);
+        return summary;
+    }
+
+    @TestConfiguration
+    static class MetricsConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -29,6 +29,28 @@ class AutoDataTest {
         assertTrue(isMaxChildCountValid(Collections.singletonList(root), maxChild));
     }
 
+    /**
+     * 对比顺序构造与并行构造的耗时
+     */
+    @Test
+    void buildTreeParallel() {
+        String rootPid = "0";
+        int nodesCount = 1_000_000;
+        int maxChild = 10;
+        List<Treeable> sequentialNodes = AutoData.makeRandomNodes(nodesCount, maxChild, rootPid);
+        List<Treeable> parallelNodes = AutoData.makeRandomNodes(nodesCount, maxChild, rootPid);
+        long startTime = System.currentTimeMillis();
+        List<Treeable> sequentialRoots = TreeUtil.buildTree(sequentialNodes);
+        log.info("construct tree cost : " + (System.currentTimeMillis() - startTime) + "ms");
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        startTime = System.currentTimeMillis();
+        List<Treeable> parallelRoots = TreeUtil.buildTreeParallel(parallelNodes, parallelism);
+        log.info("construct tree in parallel(" + parallelism + ") cost : "
+                + (System.currentTimeMillis() - startTime) + "ms");
+        assertEquals(nodesCount, countNodes(sequentialRoots));
+        assertEquals(nodesCount, countNodes(parallelRoots));
+    }
+
     private boolean isMaxChildCountValid(List<Treeable> trees, int max) {
         if (null == trees || trees.isEmpty()) {
             return false;
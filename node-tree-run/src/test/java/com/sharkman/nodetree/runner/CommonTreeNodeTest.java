@@ -0,0 +1,96 @@
+package com.sharkman.nodetree.runner;
+
+import com.sharkman.nodetree.annotation.NodeChildren;
+import com.sharkman.nodetree.annotation.NodeID;
+import com.sharkman.nodetree.annotation.NodePID;
+import com.sharkman.nodetree.core.GeneratedTreeNodeWrapper;
+import com.sharkman.nodetree.core.LongKeyTreeNodeWrapper;
+import com.sharkman.nodetree.core.TreeNodeWrapper;
+import com.sharkman.nodetree.core.TreeNodeWrapperRegistry;
+import com.sharkman.nodetree.core.TreeUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommonTreeNodeTest {
+
+    /**
+     * 注解节点使用编译期生成的包装器
+     */
+    @Test
+    void generatedWrapper() {
+        TreeNodeWrapper<CommonTreeNode> wrapper = TreeNodeWrapperRegistry.getWrapper(CommonTreeNode.class);
+        assertTrue(wrapper instanceof GeneratedTreeNodeWrapper);
+
+        CommonTreeNode node = new CommonTreeNode("1", "0");
+        assertEquals("1", wrapper.getId(node));
+        assertEquals("0", wrapper.getPId(node));
+
+        List<CommonTreeNode> nodes = new ArrayList<>();
+        nodes.add(node);
+        nodes.add(new CommonTreeNode("2", "1"));
+        nodes.add(new CommonTreeNode("3", "1"));
+        CommonTreeNode root = TreeUtil.buildTreeOfRootPId(nodes, "0");
+        assertEquals(2, root.getChildren().size());
+    }
+
+    /**
+     * 整数 id 的节点生成 long 键的包装器
+     */
+    @Test
+    void generatedLongKeyWrapper() {
+        assertFalse(TreeNodeWrapperRegistry.getWrapper(CommonTreeNode.class) instanceof LongKeyTreeNodeWrapper);
+        TreeNodeWrapper<LongNode> wrapper = TreeNodeWrapperRegistry.getWrapper(LongNode.class);
+        assertTrue(wrapper instanceof GeneratedTreeNodeWrapper);
+        assertTrue(wrapper instanceof LongKeyTreeNodeWrapper);
+
+        LongKeyTreeNodeWrapper<LongNode> longWrapper = (LongKeyTreeNodeWrapper<LongNode>) wrapper;
+        LongNode node = new LongNode(1, null);
+        assertTrue(longWrapper.hasId(node));
+        assertEquals(1L, longWrapper.getLongId(node));
+        assertFalse(longWrapper.hasPId(node));
+
+        List<LongNode> nodes = new ArrayList<>();
+        nodes.add(node);
+        nodes.add(new LongNode(2, 1L));
+        nodes.add(new LongNode(3, 2L));
+        LongNode root = TreeUtil.buildTreeOfRootPId(nodes, null);
+        assertEquals(1, root.getChildren().size());
+        assertEquals(1, root.getChildren().get(0).getChildren().size());
+    }
+
+    public static class LongNode {
+        @NodeID
+        private final int id;
+        @NodePID
+        private final Long pid;
+        @NodeChildren
+        private List<LongNode> children;
+
+        LongNode(int id, Long pid) {
+            this.id = id;
+            this.pid = pid;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public Long getPid() {
+            return pid;
+        }
+
+        public List<LongNode> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<LongNode> children) {
+            this.children = children;
+        }
+    }
+}
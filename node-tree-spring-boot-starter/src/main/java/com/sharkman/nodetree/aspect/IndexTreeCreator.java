@@ -0,0 +1,68 @@
+package com.sharkman.nodetree.aspect;
+
+import com.sharkman.nodetree.annotation.TreeEngine;
+import com.sharkman.nodetree.core.TreeIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p> Description:索引树构造</p>
+ * <p> 先构造数组形式的 {@link TreeIndex}，按父节点分组后为每个父节点创建大小恰好等于孩子数量的集合，
+ * 孩子集合不会扩容。返回的树不引用索引，构造完成后索引即可回收，孩子集合可以修改。</p>
+ * <p> CreationTime: 2026/10/18 1:50 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class IndexTreeCreator implements TreeCreator {
+    private static final IndexTreeCreator INSTANCE = new IndexTreeCreator();
+
+    private IndexTreeCreator() {
+    }
+
+    /**
+     * 获取实例
+     *
+     * @return 实例
+     */
+    static TreeCreator getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public TreeEngine engine() {
+        return TreeEngine.INDEX;
+    }
+
+    @Override
+    public Object buildTreeOfRootId(List<Object> vos, String id) {
+        if (null == id) {
+            throw new IllegalArgumentException("构建树失败！根节点id不能为空！");
+        }
+        TreeIndex<Object> index = attach(vos);
+        int root = index.indexOf(id);
+        if (root == TreeIndex.NONE) {
+            throw new NullPointerException("构建树失败！未找到id为 " + id + " 的根节点！");
+        }
+        return index.node(root);
+    }
+
+    @Override
+    public List<Object> buildTreeOfRootPIdForList(List<Object> vos, String pid) {
+        List<Object> roots = attach(vos).rootsOfPid(pid);
+        return roots.isEmpty() ? null : roots;
+    }
+
+    @Override
+    public List<Object> buildTree(List<Object> vos) {
+        return new ArrayList<>(attach(vos).roots());
+    }
+
+    private static TreeIndex<Object> attach(List<Object> vos) {
+        TreeIndex<Object> index = TreeIndex.of(vos);
+        index.attachChildren();
+        return index;
+    }
+}
@@ -0,0 +1,168 @@
+package com.sharkman.nodetree.aspect;
+
+import com.sharkman.nodetree.core.TreeNodeWrapper;
+import com.sharkman.nodetree.core.TreeNodeWrapperRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p> Description:以 Micrometer 记录构造指标</p>
+ * <p> 每个方法以类的全限定名、方法名为标签，构造耗时另以构造方式为标签，标签取值的数量与方法数量相同，不随参数变化。
+ * MeterRegistry 在第一次记录时获取，容器中没有 MeterRegistry 时不记录。</p>
+ * <p> 结果树的节点数量、根节点数量、未包含在结果树中的节点数量及层数需要遍历一次结果树，只在记录指标时计算，
+ * 遍历只使用与层数成正比的栈，不复制节点。</p>
+ * <p> CreationTime: 2026/10/18 3:10 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class MicrometerNodeTreeMetrics implements NodeTreeMetrics {
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+    private volatile boolean resolved;
+
+    MicrometerNodeTreeMetrics(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public void recordBuild(Method method, String engine, int inputSize, List<?> roots, long nanos) {
+        Meters m = metersOf(method);
+        if (null == m) {
+            return;
+        }
+        m.timer(engine).record(nanos, TimeUnit.NANOSECONDS);
+        m.input.record(inputSize);
+        int rootCount = null == roots ? 0 : roots.size();
+        m.roots.record(rootCount);
+        if (rootCount == 0) {
+            m.nodes.record(0);
+            m.excluded.record(inputSize);
+            m.depth.record(0);
+            return;
+        }
+        // 深度优先遍历结果树，栈中只保存每层的孩子集合及下一个位置，不复制节点；节点数超过输入数量时说明存在环，停止遍历
+        TreeNodeWrapper<Object> wrapper = TreeNodeWrapperRegistry.getWrapper(roots.get(0));
+        List<?>[] lists = new List<?>[16];
+        int[] positions = new int[16];
+        lists[0] = roots;
+        int top = 0;
+        int nodeCount = 0;
+        int levels = 0;
+        while (top >= 0 && nodeCount <= inputSize) {
+            List<?> list = lists[top];
+            if (positions[top] == list.size()) {
+                lists[top--] = null;
+                continue;
+            }
+            Object node = list.get(positions[top]++);
+            nodeCount++;
+            levels = Math.max(levels, top + 1);
+            List<Object> children = wrapper.getChildren(node);
+            if (null != children && !children.isEmpty()) {
+                if (++top == lists.length) {
+                    lists = Arrays.copyOf(lists, top * 2);
+                    positions = Arrays.copyOf(positions, top * 2);
+                }
+                lists[top] = children;
+                positions[top] = 0;
+            }
+        }
+        m.nodes.record(nodeCount);
+        m.excluded.record(Math.max(0, inputSize - nodeCount));
+        m.depth.record(levels);
+    }
+
+    @Override
+    public void recordCache(Method method, String cacheName, boolean hit) {
+        Meters m = metersOf(method);
+        if (null != m) {
+            m.cache(cacheName, hit).increment();
+        }
+    }
+
+    private Meters metersOf(Method method) {
+        if (!resolved) {
+            registry = registryProvider.getIfAvailable();
+            resolved = true;
+        }
+        if (null == registry) {
+            return null;
+        }
+        Meters m = meters.get(method);
+        if (null == m) {
+            m = meters.computeIfAbsent(method, key -> new Meters(registry, key));
+        }
+        return m;
+    }
+
+    /**
+     * 一个方法的所有指标
+     */
+    private static final class Meters {
+        private final MeterRegistry registry;
+        private final Tags tags;
+        private final DistributionSummary input;
+        private final DistributionSummary nodes;
+        private final DistributionSummary roots;
+        private final DistributionSummary excluded;
+        private final DistributionSummary depth;
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>(4);
+        private volatile Counter hits;
+        private volatile Counter misses;
+
+        Meters(MeterRegistry registry, Method method) {
+            this.registry = registry;
+            this.tags = Tags.of("class", method.getDeclaringClass().getName(), "method", method.getName());
+            this.input = summary("nodetree.build.input", "方法返回的节点数量");
+            this.nodes = summary("nodetree.build.nodes", "结果树的节点数量");
+            this.roots = summary("nodetree.build.roots", "结果树的根节点数量");
+            this.excluded = summary("nodetree.build.excluded", "未包含在结果树中的节点数量，包括所选子树以外的节点及找不到父节点的节点");
+            this.depth = summary("nodetree.build.depth", "结果树的层数");
+        }
+
+        private DistributionSummary summary(String name, String description) {
+            return DistributionSummary.builder(name).description(description).tags(tags).register(registry);
+        }
+
+        Timer timer(String engine) {
+            Timer timer = timers.get(engine);
+            if (null == timer) {
+                timer = timers.computeIfAbsent(engine, key -> Timer.builder("nodetree.build")
+                        .description("构造树的耗时，不含方法执行")
+                        .tags(tags).tag("engine", key)
+                        .register(registry));
+            }
+            return timer;
+        }
+
+        Counter cache(String cacheName, boolean hit) {
+            Counter counter = hit ? hits : misses;
+            if (null == counter) {
+                counter = Counter.builder("nodetree.cache.requests")
+                        .description("结果缓存的读取次数")
+                        .tags(tags).tag("cache", cacheName).tag("result", hit ? "hit" : "miss")
+                        .register(registry);
+                if (hit) {
+                    hits = counter;
+                } else {
+                    misses = counter;
+                }
+            }
+            return counter;
+        }
+    }
+}
@@ -1,21 +1,24 @@
 package com.sharkman.nodetree.aspect;
 
 import com.sharkman.nodetree.annotation.NodeTree;
-import com.sharkman.nodetree.annotation.RootID;
-import com.sharkman.nodetree.annotation.RootPID;
-import com.sharkman.nodetree.core.ReflectUtil;
+import com.sharkman.nodetree.core.TreeBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.util.ClassUtils;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * 节点树切面
@@ -29,8 +32,75 @@ import java.util.Optional;
 @Slf4j
 @Aspect
 public class NodeTreeAspect {
+    /**
+     * Flux 返回值的构造方式标签
+     */
+    private static final String STREAM = "STREAM";
+    private static final boolean REACTOR_PRESENT =
+            ClassUtils.isPresent("reactor.core.publisher.Mono", NodeTreeAspect.class.getClassLoader());
+    private final NodeTreeCache cache;
+    /**
+     * 异步返回值的树构造线程池
+     */
+    private final Executor buildExecutor;
+    private final TreeCreatorSelector creators;
+    private final NodeTreeMetrics metrics;
+    /**
+     * 类路径中没有 reactor 时为 null
+     */
+    private final ReactiveTreeSupport reactive;
+    private final Map<Method, NodeTreeMethodPlan> plans = new ConcurrentHashMap<>();
+
+    public NodeTreeAspect() {
+        this(new NodeTreeCache());
+    }
+
+    /**
+     * @param cache 结果缓存
+     * @since 2.1.0
+     */
+    public NodeTreeAspect(NodeTreeCache cache) {
+        this(cache, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param cache         结果缓存
+     * @param buildExecutor 方法返回 CompletableFuture、Mono、Flux 时构造树的线程池
+     * @since 2.1.0
+     */
+    public NodeTreeAspect(NodeTreeCache cache, Executor buildExecutor) {
+        this(cache, buildExecutor, new TreeCreatorSelector());
+    }
+
+    /**
+     * @param cache         结果缓存
+     * @param buildExecutor 方法返回 CompletableFuture、Mono、Flux 时构造树的线程池
+     * @param creators      树构造器选择
+     * @since 2.1.0
+     */
+    public NodeTreeAspect(NodeTreeCache cache, Executor buildExecutor, TreeCreatorSelector creators) {
+        this(cache, buildExecutor, creators, NodeTreeMetrics.NOOP);
+    }
+
+    /**
+     * @param cache         结果缓存
+     * @param buildExecutor 方法返回 CompletableFuture、Mono、Flux 时构造树的线程池
+     * @param creators      树构造器选择
+     * @param metrics       构造指标
+     * @since 2.1.0
+     */
+    public NodeTreeAspect(NodeTreeCache cache, Executor buildExecutor, TreeCreatorSelector creators,
+                          NodeTreeMetrics metrics) {
+        this.cache = cache;
+        this.buildExecutor = buildExecutor;
+        this.creators = creators;
+        this.metrics = metrics;
+        this.reactive = REACTOR_PRESENT ? new ReactiveTreeSupport(buildExecutor) : null;
+    }
+
     /**
      * 解析方法返回值，生成树结构;
+     * 返回值为 CompletionStage&lt;List&gt;、Mono&lt;List&gt;、Flux 时，在构造线程池上构造树，不阻塞调用线程
      *
      * @param joinPoint 切点代理方法
      * @param nodeTree  节点树注解
@@ -38,185 +108,112 @@ public class NodeTreeAspect {
      */
     @Around(value = "@annotation(nodeTree)")
     public Object constructTree(ProceedingJoinPoint joinPoint, NodeTree nodeTree) throws Throwable {
-        Object returnValue = joinPoint.proceed();
-        if (null == returnValue) {
+        if ("".equals(nodeTree.cacheName())) {
+            return proceedAndBuild(joinPoint, nodeTree);
+        }
+        // 命中缓存时不再执行方法，也不再构造树
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        List<Object> key = planOf(method, nodeTree).cacheKey(joinPoint.getArgs());
+        if (null == key) {
+            // 参数无法生成快照，不缓存
+            return proceedAndBuild(joinPoint, nodeTree);
+        }
+        Object cached = cache.get(nodeTree.cacheName(), method, key);
+        metrics.recordCache(method, nodeTree.cacheName(), null != cached);
+        if (null != cached) {
+            return cached;
+        }
+        // 执行方法前读取清除次数，执行期间被清除时不写入旧数据
+        long generation = cache.generation(nodeTree.cacheName(), nodeTree.cacheMaxEntries());
+        Object result = proceedAndBuild(joinPoint, nodeTree);
+        if (null == result) {
             return null;
         }
-        if (!(returnValue instanceof List)) {
-            log.error("不支持的类型：{}, 期望类型为 List ", returnValue.getClass().getName());
-            return returnValue;
-        }
-        @SuppressWarnings("unchecked")
-        List<Object> returnList = (List<Object>) returnValue;
-        if (returnList.isEmpty()) {
-            return returnValue;
-        }
-        // 扩展点，可自定义树构造器，增加额外的行为
-        TreeCreator creator = DefaultTreeCreator.getInstance();
-        // 首先查看 NodeTree 节点本身是否传入了固定值
-        JudgeReturnResult returnResult = judgeOfNodeTypeValue(returnList, nodeTree, creator);
-        if (returnResult.find) {
-            return returnResult.results;
+        Consumer<Object> store = value -> cache.put(nodeTree.cacheName(), generation, nodeTree.cacheTtl(),
+                nodeTree.cacheMaxEntries(), method, key, value);
+        // 异步结果完成后再缓存，缓存已完成的结果
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete((value, e) -> {
+                if (null == e && null != value) {
+                    store.accept(CompletableFuture.completedFuture(value));
+                }
+            });
+            return result;
         }
-        // 查找参数是否有参数注解
-        // 参数对象
-        returnResult = judgeOfParamsValue(returnList, joinPoint, creator);
-        if (returnResult.find) {
-            return returnResult.results;
+        if (null != reactive && reactive.supports(result)) {
+            return reactive.cache(result, store);
         }
-        // 如果没有指定计算类型，则返回所有可能节点
-        return creator.buildTree(returnList);
+        store.accept(result);
+        return result;
     }
 
-    /**
-     * 查看{@link NodeTree} 注解是否赋值根节点条件信息
-     *
-     * @param returnList 返回值
-     * @param nodeTree   {@link NodeTree}
-     * @param creator    数构造器{@link TreeCreator}
-     * @return 结果
-     */
-    private JudgeReturnResult judgeOfNodeTypeValue(
-            List<Object> returnList, NodeTree nodeTree, TreeCreator creator) {
-        if (!"".equals(nodeTree.id())) {
-            return JudgeReturnResult.from(creator.buildTreeOfRootId(returnList, nodeTree.id()));
+    private Object proceedAndBuild(ProceedingJoinPoint joinPoint, NodeTree nodeTree) throws Throwable {
+        Object returnValue = joinPoint.proceed();
+        if (null == returnValue) {
+            return null;
         }
-        if (!"".equals(nodeTree.pid())) {
-            return new JudgeReturnResult(creator.buildTreeOfRootPIdForList(
-                    returnList, nodeTree.pid()
-            ));
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        NodeTreeMethodPlan plan = planOf(method, nodeTree);
+        Object[] args = joinPoint.getArgs();
+        if (returnValue instanceof CompletionStage) {
+            return ((CompletionStage<?>) returnValue)
+                    .thenApplyAsync(value -> buildList(value, method, nodeTree, plan, args), buildExecutor);
         }
-        if (nodeTree.isPidNull()) {
-            return new JudgeReturnResult(creator.buildTreeOfRootPIdForList(
-                    returnList, null
-            ));
+        if (null != reactive && reactive.supports(returnValue)) {
+            return reactive.build(returnValue, value -> buildList(value, method, nodeTree, plan, args),
+                    builder -> buildStream(builder, method, plan, args));
         }
-        return new JudgeReturnResult();
+        return buildList(returnValue, method, nodeTree, plan, args);
     }
 
-    /**
-     * 判断方法参数
-     * @param returnList 返回值
-     * @param joinPoint 切点
-     * @param creator 树创建器
-     * @return 构造结果
-     */
-    private JudgeReturnResult judgeOfParamsValue(
-            List<Object> returnList, ProceedingJoinPoint joinPoint, TreeCreator creator) {
-        // 方法参数
-        // 如果参数为空，则直接返回所有根节点
-        Object[] params = joinPoint.getArgs();
-        if (null == params || 0 == params.length) {
-            return new JudgeReturnResult(creator.buildTree(returnList));
+    private Object buildList(Object value, Method method, NodeTree nodeTree, NodeTreeMethodPlan plan, Object[] args) {
+        if (null == value) {
+            return null;
         }
-        // 查找方法参数上是否有注解
-        JudgeReturnResult param = findResultForPrimitiveArgs(returnList, joinPoint, creator);
-        if (param != null) {
-            return param;
+        if (!(value instanceof List)) {
+            log.error("不支持的类型：{}, 期望类型为 List ", value.getClass().getName());
+            return value;
         }
-        // 查找方法参数内部是否有注解
-        JudgeReturnResult rootIDObj = findResultForObjectArgs(returnList, joinPoint, creator);
-        if (rootIDObj != null) {
-            return rootIDObj;
+        @SuppressWarnings("unchecked")
+        List<Object> returnList = (List<Object>) value;
+        if (returnList.isEmpty()) {
+            return value;
         }
-        // 都没有，返回所有可能根节点
-        return new JudgeReturnResult();
+        // 扩展点，可自定义树构造器，增加额外的行为
+        TreeCreator creator = creators.select(nodeTree, returnList.size());
+        int inputSize = returnList.size();
+        long start = System.nanoTime();
+        List<Object> roots = plan.build(returnList, args, creator);
+        metrics.recordBuild(method, creator.engine().name(), inputSize, roots, System.nanoTime() - start);
+        return roots;
     }
 
-    private JudgeReturnResult findResultForPrimitiveArgs(
-            List<Object> returnList, ProceedingJoinPoint joinPoint, TreeCreator creator) {
-        //获取方法，此处可将signature强转为MethodSignature
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        Annotation[][] annotations = method.getParameterAnnotations();
-        // 方法参数
-        Object[] params = joinPoint.getArgs();
-        for (int i = 0; i < annotations.length; i++) {
-            Annotation[] curAnnotations = annotations[i];
-            Object param = params[i];
-            for (Annotation annotation : curAnnotations) {
-                // 找 Pid（更常用）
-                if (annotation.annotationType() == RootPID.class) {
-                    return new JudgeReturnResult(creator.buildTreeOfRootPIdForList(
-                            returnList, Optional.ofNullable(param).map(Object::toString).orElse(null)
-                    ));
-                }
-                // 找id
-                if (annotation.annotationType() == RootID.class) {
-                    if (null == param) {
-                        throw new NullPointerException("RootID 为空！");
-                    }
-                    return JudgeReturnResult.from(
-                            creator.buildTreeOfRootId(returnList, param.toString())
-                    );
-                }
-
-            }
-        }
-        return null;
+    private List<Object> buildStream(TreeBuilder<Object> builder, Method method, NodeTreeMethodPlan plan, Object[] args) {
+        if (builder.size() == 0) {
+            return Collections.emptyList();
+        }
+        int inputSize = builder.size();
+        long start = System.nanoTime();
+        List<Object> roots = plan.build(builder, args);
+        metrics.recordBuild(method, STREAM, inputSize, roots, System.nanoTime() - start);
+        return roots;
     }
 
-    private JudgeReturnResult findResultForObjectArgs(
-            List<Object> returnList, ProceedingJoinPoint joinPoint, TreeCreator creator) {
-        Object[] params = joinPoint.getArgs();
-        // 若方法参数是对象，则遍历对象中的参数
-        for (Object param : params) {
-            // 如果是基本类型或字符串
-            if (null == param || ReflectUtil.isPrimitiveOrWrapper(param.getClass()) || param.getClass() == String.class) {
-                continue;
-            }
-            Class<?> clazz = param.getClass();
-            // 找pid注解
-            Field field = ReflectUtil.findColumnByAnnotation(param.getClass().getDeclaredFields(), RootPID.class);
-            if (null != field) {
-                Method rootPIDGetter;
-                try {
-                    rootPIDGetter = ReflectUtil.refGetMethod(clazz, field.getName());
-                } catch (NoSuchMethodException e) {
-                    throw new IllegalArgumentException(
-                            ReflectUtil.methodNotFoundByAnnotationMessage(RootPID.class.getName(), field));
-                }
-                Object rootIDObj = ReflectUtil.methodInvoke(rootPIDGetter, param);
-                return new JudgeReturnResult(creator.buildTreeOfRootPIdForList(
-                        returnList, Optional.ofNullable(rootIDObj).map(Object::toString).orElse(null)
-                ));
-            }
-            // 找id注解
-            field = ReflectUtil.findColumnByAnnotation(param.getClass().getDeclaredFields(), RootID.class);
-            if (null != field) {
-                Method rootIDGetter;
-                try {
-                    rootIDGetter = ReflectUtil.refGetMethod(clazz, field.getName());
-                } catch (NoSuchMethodException e) {
-                    throw new IllegalArgumentException(
-                            ReflectUtil.methodNotFoundByAnnotationMessage(RootID.class.getName(), field));
-                }
-                String rootID = (String) Optional.ofNullable(ReflectUtil.methodInvoke(rootIDGetter, param))
-                        .orElseThrow(() -> new NullPointerException("RootID 为空!"));
-                return JudgeReturnResult.from(
-                        creator.buildTreeOfRootId(returnList, rootID)
-                );
-            }
-
-        }
-        return null;
+    /**
+     * 预先解析方法，首次调用时不再反射解析
+     *
+     * @param method   方法
+     * @param nodeTree 方法上的注解
+     */
+    void prepare(Method method, NodeTree nodeTree) {
+        planOf(method, nodeTree);
     }
 
-    private static class JudgeReturnResult {
-        private boolean find;
-        private List<Object> results;
-
-        JudgeReturnResult() {
-        }
-
-        JudgeReturnResult(List<Object> results) {
-            this.find = true;
-            this.results = results;
-        }
-
-        // 由于 object 是List 父类，为了避免冲突，使用静态方法创建类
-        static JudgeReturnResult from(Object result) {
-            return new JudgeReturnResult(Collections.singletonList(result));
+    private NodeTreeMethodPlan planOf(Method method, NodeTree nodeTree) {
+        NodeTreeMethodPlan plan = plans.get(method);
+        if (null == plan) {
+            plan = plans.computeIfAbsent(method, m -> NodeTreeMethodPlan.of(m, nodeTree));
         }
+        return plan;
     }
 }
@@ -0,0 +1,47 @@
+package com.sharkman.nodetree.aspect;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p> Description:树构造线程池</p>
+ * <p> 用于并行构造及异步返回值的构造。不直接注册为 Executor bean，避免替换应用默认的任务线程池。
+ * 自建的线程池在容器关闭时关闭。</p>
+ * <p> CreationTime: 2026/10/18 2:30 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public class NodeTreeBuildPool implements DisposableBean {
+    private final ForkJoinPool pool;
+    private final boolean owned;
+
+    /**
+     * @param poolSize 线程池大小，等于 0 时使用公共 ForkJoinPool
+     */
+    public NodeTreeBuildPool(int poolSize) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("线程池大小不能小于 0！");
+        }
+        this.owned = poolSize > 0;
+        this.pool = owned ? new ForkJoinPool(poolSize) : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * 获取线程池
+     *
+     * @return 线程池
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public void destroy() {
+        if (owned) {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.sharkman.nodetree.aspect;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p> Description:{@link com.sharkman.nodetree.annotation.NodeTree} 结果缓存</p>
+ * <p> 按缓存名称分区，每个分区为容量固定的 LRU 缓存，以方法、解析出的根节点及参数的快照为键保存构造好的树，
+ * 调用后再修改参数对象不影响已缓存的键。
+ * 每个分区带有清除次数，执行方法前读取，写入时已被清除过则放弃写入，清除前开始、清除后才完成的调用不会写入旧数据。
+ * 命中时直接返回缓存的树，返回的树与缓存共享，调用方不应修改。数据变更后通过 {@link #evict(String)} 清除。</p>
+ * <p> CreationTime: 2026/10/17 11:40 PM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public class NodeTreeCache {
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+    private final long defaultTtlSeconds;
+    private final int defaultMaxEntries;
+
+    public NodeTreeCache() {
+        this(0, 1000);
+    }
+
+    /**
+     * @param defaultTtlSeconds 方法上未指定时的有效时长，单位秒，等于 0 时不过期
+     * @param defaultMaxEntries 方法上未指定时每个缓存最多保存的结果数量
+     */
+    public NodeTreeCache(long defaultTtlSeconds, int defaultMaxEntries) {
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.defaultMaxEntries = defaultMaxEntries;
+    }
+
+    /**
+     * 清除指定缓存的所有结果
+     *
+     * @param cacheName 缓存名称
+     */
+    public void evict(String cacheName) {
+        Region region = regions.get(cacheName);
+        if (null != region) {
+            region.clear();
+        }
+    }
+
+    /**
+     * 清除所有缓存
+     */
+    public void evictAll() {
+        regions.values().forEach(Region::clear);
+    }
+
+    /**
+     * 缓存中的结果数量
+     *
+     * @param cacheName 缓存名称
+     * @return 结果数量
+     */
+    public int size(String cacheName) {
+        Region region = regions.get(cacheName);
+        return null == region ? 0 : region.size();
+    }
+
+    /**
+     * 分区的清除次数，执行方法前读取，写入时传给 {@link #put}
+     *
+     * @param maxEntries 分区容量，分区已存在时忽略，小于 0 时使用默认值
+     * @return 清除次数
+     */
+    long generation(String cacheName, int maxEntries) {
+        return regionOf(cacheName, maxEntries).generation();
+    }
+
+    /**
+     * 读取缓存
+     *
+     * @return 缓存的结果，未命中或已过期时返回 null
+     */
+    Object get(String cacheName, Method method, List<Object> key) {
+        Region region = regions.get(cacheName);
+        return null == region ? null : region.get(new Key(method, key));
+    }
+
+    /**
+     * 写入缓存，分区在读取 generation 后被清除过时放弃写入
+     *
+     * @param generation 执行方法前由 {@link #generation(String, int)} 读取的清除次数
+     * @param ttlSeconds 有效时长，等于 0 时不过期，小于 0 时使用默认值
+     * @param maxEntries 分区容量，分区已存在时忽略，小于 0 时使用默认值
+     */
+    void put(String cacheName, long generation, long ttlSeconds, int maxEntries, Method method, List<Object> key,
+             Object value) {
+        long ttl = ttlSeconds < 0 ? defaultTtlSeconds : ttlSeconds;
+        long expiresAt = ttl > 0 ? System.nanoTime() + TimeUnit.SECONDS.toNanos(ttl) : 0;
+        regionOf(cacheName, maxEntries).put(generation, new Key(method, key), new Value(value, expiresAt));
+    }
+
+    private Region regionOf(String cacheName, int maxEntries) {
+        return regions.computeIfAbsent(cacheName, name -> new Region(maxEntries < 0 ? defaultMaxEntries : maxEntries));
+    }
+
+    private static final class Region {
+        private final LinkedHashMap<Key, Value> entries;
+        /**
+         * 清除次数
+         */
+        private long generation;
+
+        Region(int maxEntries) {
+            int capacity = Math.max(1, maxEntries);
+            this.entries = new LinkedHashMap<Key, Value>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Value> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized Object get(Key key) {
+            Value value = entries.get(key);
+            if (null == value) {
+                return null;
+            }
+            if (value.expiresAt != 0 && value.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return value.result;
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized void put(long expected, Key key, Value value) {
+            if (generation == expected) {
+                entries.put(key, value);
+            }
+        }
+
+        synchronized void clear() {
+            generation++;
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+
+    private static final class Value {
+        private final Object result;
+        private final long expiresAt;
+
+        Value(Object result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * 方法及 {@link NodeTreeMethodPlan#cacheKey(Object[])} 生成的键，键为不再修改的快照
+     */
+    private static final class Key {
+        private final Method method;
+        private final List<Object> parts;
+        private final int hash;
+
+        Key(Method method, List<Object> parts) {
+            this.method = method;
+            this.parts = parts;
+            this.hash = 31 * method.hashCode() + parts.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && method.equals(key.method) && parts.equals(key.parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
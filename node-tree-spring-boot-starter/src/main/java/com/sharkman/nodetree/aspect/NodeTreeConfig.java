@@ -1,10 +1,22 @@
 package com.sharkman.nodetree.aspect;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
 /**
- * <p> Description:节点树配置</p>
+ * <p> Description:节点树自动配置</p>
+ * <p> 配置项见 {@link NodeTreeProperties}，各 bean 均可由应用自行声明同类型的 bean 替换。</p>
  * <p> CreationTime: 2021/8/27 16:21
  * <br>Email: <a href="mailto:yanpengyu@thunisoft.com">yanpengyu@thunisoft.com</a></p>
  *
@@ -12,16 +24,113 @@ import org.springframework.context.annotation.Configuration;
  * @version 1.0
  * @since 2.1
  */
-@Configuration
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NodeTreeProperties.class)
 public class NodeTreeConfig {
 
+    /**
+     * 结果缓存，可注入后清除缓存
+     *
+     * @param properties 配置项
+     * @return 缓存bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public NodeTreeCache nodeTreeCache(NodeTreeProperties properties) {
+        return new NodeTreeCache(properties.getCache().getTtl(), properties.getCache().getMaxEntries());
+    }
+
+    /**
+     * 树构造线程池
+     *
+     * @param properties 配置项
+     * @return 线程池bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public NodeTreeBuildPool nodeTreeBuildPool(NodeTreeProperties properties) {
+        return new NodeTreeBuildPool(properties.getExecutor().getPoolSize());
+    }
+
+    /**
+     * 树构造器选择，容器中的 {@link TreeCreator} bean 替换同一构造方式的内置构造器
+     *
+     * @param properties        配置项
+     * @param nodeTreeBuildPool 并行构造的线程池
+     * @param creators          自定义构造器
+     * @return 选择bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TreeCreatorSelector treeCreatorSelector(NodeTreeProperties properties, NodeTreeBuildPool nodeTreeBuildPool,
+                                                   ObjectProvider<TreeCreator> creators) {
+        return new TreeCreatorSelector(properties, nodeTreeBuildPool.getPool(),
+                creators.orderedStream().collect(Collectors.toList()));
+    }
+
     /**
      * 注入Bean
      *
+     * @param nodeTreeCache       结果缓存
+     * @param nodeTreeBuildPool   树构造线程池
+     * @param buildExecutor       名为 nodeTreeBuildExecutor 的线程池，异步返回值在其上构造树，没有时使用树构造线程池
+     * @param treeCreatorSelector 树构造器选择
+     * @param nodeTreeMetrics     构造指标，没有时不记录
      * @return 切面bean
      */
     @Bean
-    public NodeTreeAspect nodeTreeAspect() {
-        return new NodeTreeAspect();
+    @ConditionalOnMissingBean
+    public NodeTreeAspect nodeTreeAspect(NodeTreeCache nodeTreeCache, NodeTreeBuildPool nodeTreeBuildPool,
+                                         @Qualifier("nodeTreeBuildExecutor") ObjectProvider<Executor> buildExecutor,
+                                         TreeCreatorSelector treeCreatorSelector,
+                                         ObjectProvider<NodeTreeMetrics> nodeTreeMetrics) {
+        return new NodeTreeAspect(nodeTreeCache, buildExecutor.getIfAvailable(nodeTreeBuildPool::getPool),
+                treeCreatorSelector, nodeTreeMetrics.getIfAvailable(() -> NodeTreeMetrics.NOOP));
+    }
+
+    /**
+     * 启动时预先解析 {@link com.sharkman.nodetree.annotation.NodeTree} 方法
+     *
+     * @param beanFactory    bean 工厂
+     * @param nodeTreeAspect 切面
+     * @return 扫描bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public NodeTreeMethodScanner nodeTreeMethodScanner(ListableBeanFactory beanFactory, NodeTreeAspect nodeTreeAspect) {
+        return new NodeTreeMethodScanner(beanFactory, nodeTreeAspect);
+    }
+
+    /**
+     * 启动时预先解析 nodetree.warm-up-packages 中节点类的包装器
+     *
+     * @param properties 配置项
+     * @return 扫描bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public NodeTreeWrapperScanner nodeTreeWrapperScanner(NodeTreeProperties properties) {
+        return new NodeTreeWrapperScanner(properties.getWarmUpPackages());
+    }
+
+    /**
+     * 类路径中存在 Micrometer 时记录构造指标，MeterRegistry 在第一次记录时获取
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @ConditionalOnProperty(prefix = "nodetree.metrics", name = "enabled", matchIfMissing = true)
+    static class MetricsConfig {
+
+        /**
+         * 构造指标
+         *
+         * @param meterRegistry 指标注册表
+         * @return 指标bean
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public NodeTreeMetrics nodeTreeMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            return new MicrometerNodeTreeMetrics(meterRegistry);
+        }
     }
 }
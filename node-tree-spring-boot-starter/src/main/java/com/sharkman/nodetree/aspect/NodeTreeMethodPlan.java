@@ -0,0 +1,450 @@
+package com.sharkman.nodetree.aspect;
+
+import com.sharkman.nodetree.annotation.NodeTree;
+import com.sharkman.nodetree.annotation.RootID;
+import com.sharkman.nodetree.annotation.RootPID;
+import com.sharkman.nodetree.core.ReflectUtil;
+import com.sharkman.nodetree.core.TreeBuilder;
+import com.sharkman.nodetree.core.TreeNodeWrapperRegistry;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * <p> Description:{@link NodeTree} 方法的根节点解析计划</p>
+ * <p> 每个方法只解析一次注解：根节点取自 {@link NodeTree} 属性、带 {@link RootID}/{@link RootPID} 注解的参数，
+ * 还是参数对象的属性。参数对象属性的 getter 按参数的实际类型解析一次，转换为预先绑定的访问器后缓存，调用时只读取根节点的值并构造树。</p>
+ * <p> 解析顺序：{@link NodeTree} 属性、参数注解、参数对象属性，都没有时返回所有可能的根节点。</p>
+ * <p> CreationTime: 2026/10/18 0:10 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class NodeTreeMethodPlan {
+    /**
+     * reactor 为可选依赖，按类名判断
+     */
+    private static final String MONO = "reactor.core.publisher.Mono";
+    /**
+     * 缓存键中参数对象的最大嵌套层数，超过时不缓存，也用于防止对象引用成环
+     */
+    private static final int MAX_KEY_DEPTH = 8;
+    /**
+     * 无法生成快照的参数，此时不缓存
+     */
+    private static final Object UNCACHEABLE = new Object();
+    /**
+     * 应用类型参与缓存键的字段，包含父类的字段，不含静态字段；无法访问时为 null
+     */
+    private static final ClassValue<Field[]> KEY_FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            try {
+                for (Class<?> c = type; null != c && c != Object.class; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers())) {
+                            field.setAccessible(true);
+                            fields.add(field);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                return null;
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+    /**
+     * JDK 类型是否按值比较，即覆盖了 equals
+     */
+    private static final ClassValue<Boolean> VALUE_TYPES = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+    private static final ClassValue<RootAccessor> ACCESSORS = new ClassValue<RootAccessor>() {
+        @Override
+        protected RootAccessor computeValue(Class<?> type) {
+            return RootAccessor.resolve(type);
+        }
+    };
+
+    private enum Source {
+        /**
+         * {@link NodeTree#id()}
+         */
+        ROOT_ID,
+        /**
+         * {@link NodeTree#pid()} 或 {@link NodeTree#isPidNull()}
+         */
+        ROOT_PID,
+        /**
+         * 带 {@link RootID} 注解的参数
+         */
+        PARAM_ROOT_ID,
+        /**
+         * 带 {@link RootPID} 注解的参数
+         */
+        PARAM_ROOT_PID,
+        /**
+         * 参数对象的属性，没有时返回所有可能的根节点
+         */
+        ARGS
+    }
+
+    private final Source source;
+    private final String root;
+    private final int paramIndex;
+
+    private NodeTreeMethodPlan(Source source, String root, int paramIndex) {
+        this.source = source;
+        this.root = root;
+        this.paramIndex = paramIndex;
+    }
+
+    /**
+     * 解析方法，并预先解析参数类型的根节点属性及返回值节点类型的包装器
+     *
+     * @param method   方法
+     * @param nodeTree 方法上的注解
+     * @return 解析计划
+     */
+    static NodeTreeMethodPlan of(Method method, NodeTree nodeTree) {
+        NodeTreeMethodPlan plan = resolve(method, nodeTree);
+        if (plan.source == Source.ARGS) {
+            for (Class<?> type : method.getParameterTypes()) {
+                ACCESSORS.get(type);
+            }
+        }
+        prepareWrapper(method.getGenericReturnType());
+        return plan;
+    }
+
+    private static NodeTreeMethodPlan resolve(Method method, NodeTree nodeTree) {
+        // 首先查看 NodeTree 节点本身是否传入了固定值
+        if (!"".equals(nodeTree.id())) {
+            return new NodeTreeMethodPlan(Source.ROOT_ID, nodeTree.id(), -1);
+        }
+        if (!"".equals(nodeTree.pid())) {
+            return new NodeTreeMethodPlan(Source.ROOT_PID, nodeTree.pid(), -1);
+        }
+        if (nodeTree.isPidNull()) {
+            return new NodeTreeMethodPlan(Source.ROOT_PID, null, -1);
+        }
+        // 查找方法参数上是否有注解
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                // 找 Pid（更常用）
+                if (annotation.annotationType() == RootPID.class) {
+                    return new NodeTreeMethodPlan(Source.PARAM_ROOT_PID, null, i);
+                }
+                if (annotation.annotationType() == RootID.class) {
+                    return new NodeTreeMethodPlan(Source.PARAM_ROOT_ID, null, i);
+                }
+            }
+        }
+        return new NodeTreeMethodPlan(Source.ARGS, null, -1);
+    }
+
+    /**
+     * 返回值为 List&lt;节点类型&gt; 时预先解析包装器，解析失败时留到构造时按节点解析。
+     * 异步返回值 CompletionStage&lt;List&lt;节点类型&gt;&gt;、Mono&lt;List&lt;节点类型&gt;&gt;、Flux&lt;节点类型&gt; 按其元素解析
+     */
+    private static void prepareWrapper(Type returnType) {
+        if (!(returnType instanceof ParameterizedType)) {
+            return;
+        }
+        ParameterizedType parameterized = (ParameterizedType) returnType;
+        Type[] arguments = parameterized.getActualTypeArguments();
+        if (arguments.length != 1) {
+            return;
+        }
+        Type rawType = parameterized.getRawType();
+        if (rawType instanceof Class && (CompletionStage.class.isAssignableFrom((Class<?>) rawType)
+                || MONO.equals(((Class<?>) rawType).getName()))) {
+            prepareWrapper(arguments[0]);
+            return;
+        }
+        if (!(arguments[0] instanceof Class)) {
+            return;
+        }
+        Class<?> nodeType = (Class<?>) arguments[0];
+        if (nodeType.isInterface() || nodeType == Object.class) {
+            return;
+        }
+        try {
+            TreeNodeWrapperRegistry.getWrapper(nodeType);
+        } catch (RuntimeException e) {
+            // 不是节点类型，或节点子类才有注解
+        }
+    }
+
+    /**
+     * 按计划构造树
+     *
+     * @param vos     方法返回的所有节点
+     * @param args    方法参数
+     * @param creator 树构造器
+     * @return 根节点
+     */
+    List<Object> build(List<Object> vos, Object[] args, TreeCreator creator) {
+        Root target = rootOf(args);
+        if (target == Root.ALL) {
+            return creator.buildTree(vos);
+        }
+        if (target.pid) {
+            return creator.buildTreeOfRootPIdForList(vos, target.value);
+        }
+        return Collections.singletonList(creator.buildTreeOfRootId(vos, target.value));
+    }
+
+    /**
+     * 按计划从已接收全部节点的流式构造器取得根节点，用于 Flux 返回值
+     *
+     * @param builder 流式构造器
+     * @param args    方法参数
+     * @return 根节点，没有时返回空集合
+     */
+    List<Object> build(TreeBuilder<Object> builder, Object[] args) {
+        Root target = rootOf(args);
+        if (target == Root.ALL) {
+            return builder.build();
+        }
+        if (target.pid) {
+            List<Object> roots = builder.buildOfRootPIdForList(target.value);
+            return null == roots ? Collections.emptyList() : roots;
+        }
+        return Collections.singletonList(builder.buildOfRootId(target.value));
+    }
+
+    /**
+     * 结果缓存的键：解析出的根节点及参数的快照。
+     * 基本类型、字符串、枚举原样保留，数组、集合、Map 逐个元素复制，应用中的参数对象按字段逐个复制，
+     * 只要有一个字段不同就是不同的键；覆盖了 equals 的 JDK 类型（如 BigDecimal、LocalDate）按值比较，
+     * 其余 JDK 对象（如 CompletableFuture）不表示数据，只以类型参与。调用后再修改参数不影响已缓存的键
+     *
+     * @param args 方法参数
+     * @return 缓存键，不可修改；参数嵌套过深、引用成环或字段无法访问时返回 null，此时不缓存
+     */
+    List<Object> cacheKey(Object[] args) {
+        Root target = rootOf(args);
+        List<Object> key = new ArrayList<>(args.length + 2);
+        key.add(target == Root.ALL ? null : target.pid);
+        key.add(target.value);
+        for (Object arg : args) {
+            Object snapshot = snapshot(arg, 0);
+            if (snapshot == UNCACHEABLE) {
+                return null;
+            }
+            key.add(snapshot);
+        }
+        return Collections.unmodifiableList(key);
+    }
+
+    private static Object snapshot(Object arg, int depth) {
+        if (null == arg || arg instanceof String || arg instanceof Enum
+                || ReflectUtil.isPrimitiveOrWrapper(arg.getClass())) {
+            return arg;
+        }
+        if (depth >= MAX_KEY_DEPTH) {
+            return UNCACHEABLE;
+        }
+        if (arg.getClass().isArray()) {
+            int length = Array.getLength(arg);
+            List<Object> copy = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                copy.add(snapshot(Array.get(arg, i), depth + 1));
+            }
+            return copy.contains(UNCACHEABLE) ? UNCACHEABLE : copy;
+        }
+        if (arg instanceof Set) {
+            Set<Object> copy = new HashSet<>();
+            for (Object element : (Set<?>) arg) {
+                copy.add(snapshot(element, depth + 1));
+            }
+            return copy.contains(UNCACHEABLE) ? UNCACHEABLE : copy;
+        }
+        if (arg instanceof Collection) {
+            List<Object> copy = new ArrayList<>(((Collection<?>) arg).size());
+            for (Object element : (Collection<?>) arg) {
+                copy.add(snapshot(element, depth + 1));
+            }
+            return copy.contains(UNCACHEABLE) ? UNCACHEABLE : copy;
+        }
+        if (arg instanceof Map) {
+            Map<Object, Object> copy = new HashMap<>();
+            ((Map<?, ?>) arg).forEach((k, v) -> copy.put(snapshot(k, depth + 1), snapshot(v, depth + 1)));
+            return copy.containsKey(UNCACHEABLE) || copy.containsValue(UNCACHEABLE) ? UNCACHEABLE : copy;
+        }
+        Class<?> type = arg.getClass();
+        if (null == type.getClassLoader()) {
+            return VALUE_TYPES.get(type) ? arg : type;
+        }
+        return snapshotFields(arg, type, depth);
+    }
+
+    /**
+     * 应用中的参数对象：类型及各字段的快照
+     */
+    private static Object snapshotFields(Object arg, Class<?> type, int depth) {
+        Field[] fields = KEY_FIELDS.get(type);
+        if (null == fields) {
+            return UNCACHEABLE;
+        }
+        List<Object> copy = new ArrayList<>(fields.length + 1);
+        copy.add(type);
+        for (Field field : fields) {
+            Object value;
+            try {
+                value = field.get(arg);
+            } catch (IllegalAccessException e) {
+                return UNCACHEABLE;
+            }
+            Object snapshot = snapshot(value, depth + 1);
+            if (snapshot == UNCACHEABLE) {
+                return UNCACHEABLE;
+            }
+            copy.add(snapshot);
+        }
+        return copy;
+    }
+
+    private Root rootOf(Object[] args) {
+        switch (source) {
+            case ROOT_ID:
+                return Root.id(root);
+            case ROOT_PID:
+                return Root.pid(root);
+            case PARAM_ROOT_PID:
+                return Root.pid(Optional.ofNullable(args[paramIndex]).map(Object::toString).orElse(null));
+            case PARAM_ROOT_ID:
+                if (null == args[paramIndex]) {
+                    throw new NullPointerException("RootID 为空！");
+                }
+                return Root.id(args[paramIndex].toString());
+            default:
+                return rootOfArgs(args);
+        }
+    }
+
+    private static Root rootOfArgs(Object[] args) {
+        // 若方法参数是对象，则查找对象中的属性
+        if (null != args) {
+            for (Object arg : args) {
+                if (null == arg) {
+                    continue;
+                }
+                RootAccessor accessor = ACCESSORS.get(arg.getClass());
+                if (accessor != RootAccessor.NONE) {
+                    return accessor.root(arg);
+                }
+            }
+        }
+        // 都没有，返回所有可能根节点
+        return Root.ALL;
+    }
+
+    /**
+     * 本次调用的根节点：根节点 id、根节点父 id，或所有可能的根节点
+     */
+    private static final class Root {
+        private static final Root ALL = new Root(false, null);
+
+        private final boolean pid;
+        private final String value;
+
+        private Root(boolean pid, String value) {
+            this.pid = pid;
+            this.value = value;
+        }
+
+        static Root id(String id) {
+            return new Root(false, id);
+        }
+
+        static Root pid(String pid) {
+            return new Root(true, pid);
+        }
+    }
+
+    /**
+     * 参数对象中带 {@link RootPID} 或 {@link RootID} 注解的属性
+     */
+    private static final class RootAccessor {
+        private static final RootAccessor NONE = new RootAccessor(false, null, null);
+
+        private final boolean pid;
+        private final Function<Object, Object> getter;
+        /**
+         * 找不到 getter 时的异常信息，使用时抛出
+         */
+        private final String error;
+
+        private RootAccessor(boolean pid, Function<Object, Object> getter, String error) {
+            this.pid = pid;
+            this.getter = getter;
+            this.error = error;
+        }
+
+        static RootAccessor resolve(Class<?> type) {
+            // 如果是基本类型或字符串
+            if (ReflectUtil.isPrimitiveOrWrapper(type) || type == String.class) {
+                return NONE;
+            }
+            Field field = ReflectUtil.findColumnByAnnotation(type.getDeclaredFields(), RootPID.class);
+            if (null != field) {
+                return of(type, field, true, RootPID.class);
+            }
+            field = ReflectUtil.findColumnByAnnotation(type.getDeclaredFields(), RootID.class);
+            if (null != field) {
+                return of(type, field, false, RootID.class);
+            }
+            return NONE;
+        }
+
+        private static RootAccessor of(Class<?> type, Field field, boolean pid, Class<? extends Annotation> annotation) {
+            try {
+                return new RootAccessor(pid, ReflectUtil.getter(ReflectUtil.refGetMethod(type, field.getName())), null);
+            } catch (NoSuchMethodException e) {
+                return new RootAccessor(pid, null,
+                        ReflectUtil.methodNotFoundByAnnotationMessage(annotation.getName(), field));
+            }
+        }
+
+        Root root(Object arg) {
+            if (null == getter) {
+                throw new IllegalArgumentException(error);
+            }
+            Object value = getter.apply(arg);
+            if (pid) {
+                return Root.pid(Optional.ofNullable(value).map(Object::toString).orElse(null));
+            }
+            String rootID = (String) Optional.ofNullable(value).orElseThrow(() -> new NullPointerException("RootID 为空!"));
+            return Root.id(rootID);
+        }
+    }
+}
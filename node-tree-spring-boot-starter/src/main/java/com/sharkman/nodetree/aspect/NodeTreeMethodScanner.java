@@ -0,0 +1,40 @@
+package com.sharkman.nodetree.aspect;
+
+import com.sharkman.nodetree.annotation.NodeTree;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * <p> Description:{@link NodeTree} 方法扫描</p>
+ * <p> 所有单例创建完成后扫描容器中各 bean 类型上的 {@link NodeTree} 方法，预先生成根节点解析计划，
+ * 首次调用时不再反射解析方法及参数类型。未扫描到的方法（如动态注册的 bean）在首次调用时解析。</p>
+ * <p> CreationTime: 2026/10/18 0:10 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public class NodeTreeMethodScanner implements SmartInitializingSingleton {
+    private final ListableBeanFactory beanFactory;
+    private final NodeTreeAspect aspect;
+
+    public NodeTreeMethodScanner(ListableBeanFactory beanFactory, NodeTreeAspect aspect) {
+        this.beanFactory = beanFactory;
+        this.aspect = aspect;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            Class<?> type = beanFactory.getType(name, false);
+            if (null == type) {
+                continue;
+            }
+            ReflectionUtils.doWithMethods(ClassUtils.getUserClass(type),
+                    method -> aspect.prepare(method, method.getAnnotation(NodeTree.class)),
+                    method -> method.isAnnotationPresent(NodeTree.class));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sharkman.nodetree.aspect;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * <p> Description:{@link com.sharkman.nodetree.annotation.NodeTree} 方法的构造指标</p>
+ * <p> 类路径中没有 Micrometer、容器中没有 MeterRegistry 或关闭了 nodetree.metrics.enabled 时使用 {@link #NOOP}，
+ * 不做任何统计。</p>
+ * <p> CreationTime: 2026/10/18 3:10 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public interface NodeTreeMetrics {
+    /**
+     * 不记录指标
+     */
+    NodeTreeMetrics NOOP = new NodeTreeMetrics() {
+        @Override
+        public void recordBuild(Method method, String engine, int inputSize, List<?> roots, long nanos) {
+            // 不记录
+        }
+
+        @Override
+        public void recordCache(Method method, String cacheName, boolean hit) {
+            // 不记录
+        }
+    };
+
+    /**
+     * 记录一次构造
+     *
+     * @param method    方法
+     * @param engine    构造方式
+     * @param inputSize 方法返回的节点数量
+     * @param roots     构造得到的根节点，可为 null
+     * @param nanos     构造耗时，单位纳秒
+     */
+    void recordBuild(Method method, String engine, int inputSize, List<?> roots, long nanos);
+
+    /**
+     * 记录一次缓存读取
+     *
+     * @param method    方法
+     * @param cacheName 缓存名称
+     * @param hit       是否命中
+     */
+    void recordCache(Method method, String cacheName, boolean hit);
+}
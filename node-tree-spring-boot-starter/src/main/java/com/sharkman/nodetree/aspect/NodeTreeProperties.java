@@ -0,0 +1,148 @@
+package com.sharkman.nodetree.aspect;
+
+import com.sharkman.nodetree.annotation.TreeEngine;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p> Description:节点树配置项，前缀 nodetree</p>
+ * <p> CreationTime: 2026/10/18 1:50 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+@ConfigurationProperties(prefix = "nodetree")
+public class NodeTreeProperties {
+    /**
+     * 默认的树构造方式，方法上的 {@link com.sharkman.nodetree.annotation.NodeTree#engine()} 优先
+     */
+    private TreeEngine engine = TreeEngine.AUTO;
+    /**
+     * 按节点数量选择构造方式时，使用并行构造的最少节点数量，等于 0 时不使用
+     */
+    private int parallelThreshold = 16384;
+    /**
+     * 按节点数量选择构造方式时，使用索引构造的最少节点数量，等于 0 时不使用
+     */
+    private int indexThreshold;
+    /**
+     * 启动时预先解析包装器的节点类所在的包，包含子包
+     */
+    private List<String> warmUpPackages = new ArrayList<>();
+    private final Executor executor = new Executor();
+    private final Cache cache = new Cache();
+    private final Metrics metrics = new Metrics();
+
+    public TreeEngine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(TreeEngine engine) {
+        this.engine = engine;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public int getIndexThreshold() {
+        return indexThreshold;
+    }
+
+    public void setIndexThreshold(int indexThreshold) {
+        this.indexThreshold = indexThreshold;
+    }
+
+    public List<String> getWarmUpPackages() {
+        return warmUpPackages;
+    }
+
+    public void setWarmUpPackages(List<String> warmUpPackages) {
+        this.warmUpPackages = warmUpPackages;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 构造线程池，用于并行构造及异步返回值的构造
+     */
+    public static class Executor {
+        /**
+         * 线程池大小，等于 0 时使用公共 ForkJoinPool
+         */
+        private int poolSize;
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+    }
+
+    /**
+     * 结果缓存，方法上未指定时使用
+     */
+    public static class Cache {
+        /**
+         * 缓存有效时长，单位秒，等于 0 时不过期
+         */
+        private long ttl;
+        /**
+         * 每个缓存最多保存的结果数量
+         */
+        private int maxEntries = 1000;
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(long ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    /**
+     * 构造指标，类路径中存在 Micrometer 且容器中有 MeterRegistry 时生效
+     */
+    public static class Metrics {
+        /**
+         * 是否记录构造指标
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.sharkman.nodetree.aspect;
+
+import com.sharkman.nodetree.annotation.NodeID;
+import com.sharkman.nodetree.core.ReflectUtil;
+import com.sharkman.nodetree.core.TreeNodeWrapperRegistry;
+import com.sharkman.nodetree.core.Treeable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * <p> Description:节点包装器预先解析</p>
+ * <p> 所有单例创建完成后扫描配置的包，为实现 {@link Treeable} 或带 {@link NodeID} 注解属性的类解析包装器，
+ * 首次构造树时不再反射解析节点类。</p>
+ * <p> CreationTime: 2026/10/18 2:30 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+@Slf4j
+public class NodeTreeWrapperScanner implements SmartInitializingSingleton, BeanClassLoaderAware {
+    private final List<String> packages;
+    private ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+
+    /**
+     * @param packages 节点类所在的包，包含子包
+     */
+    public NodeTreeWrapperScanner(List<String> packages) {
+        this.packages = packages;
+    }
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (packages.isEmpty()) {
+            return;
+        }
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter((reader, factory) -> true);
+        for (String basePackage : packages) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                prepare(candidate.getBeanClassName());
+            }
+        }
+    }
+
+    private void prepare(String className) {
+        try {
+            Class<?> type = ClassUtils.forName(className, classLoader);
+            if (Treeable.class.isAssignableFrom(type)
+                    || null != ReflectUtil.findColumnByAnnotation(type.getDeclaredFields(), NodeID.class)) {
+                TreeNodeWrapperRegistry.getWrapper(type);
+            }
+        } catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+            // 解析失败时留到构造时按节点解析
+            log.warn("预先解析节点包装器失败：{}", className, e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.sharkman.nodetree.aspect;
+
+import com.sharkman.nodetree.annotation.TreeEngine;
+import com.sharkman.nodetree.core.TreeUtil;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p> Description:并行树构造</p>
+ * <p> 在线程池中并行读取 id、解析父节点并拼接，节点较少时仍顺序构造。</p>
+ * <p> CreationTime: 2026/10/18 1:50 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class ParallelTreeCreator implements TreeCreator {
+    private final ForkJoinPool pool;
+
+    ParallelTreeCreator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public TreeEngine engine() {
+        return TreeEngine.PARALLEL;
+    }
+
+    @Override
+    public Object buildTreeOfRootId(List<Object> vos, String id) {
+        return TreeUtil.buildTreeOfRootIdParallel(vos, id, pool);
+    }
+
+    @Override
+    public List<Object> buildTreeOfRootPIdForList(List<Object> vos, String pid) {
+        return TreeUtil.buildTreeOfRootPIdForListParallel(vos, pid, pool);
+    }
+
+    @Override
+    public List<Object> buildTree(List<Object> vos) {
+        return TreeUtil.buildTreeParallel(vos, pool);
+    }
+}
@@ -0,0 +1,80 @@
+package com.sharkman.nodetree.aspect;
+
+import com.sharkman.nodetree.core.TreeBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * <p> Description:Mono/Flux 返回值的树构造</p>
+ * <p> reactor 为可选依赖，只在类路径中存在 reactor 时加载本类。
+ * Mono&lt;List&lt;节点类型&gt;&gt; 在构造线程池上把 List 构造为树；
+ * Flux&lt;节点类型&gt; 在构造线程池上逐个把节点交给 {@link TreeBuilder} 拼接，上游完成后依次发出根节点。</p>
+ * <p> CreationTime: 2026/10/18 1:20 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+final class ReactiveTreeSupport {
+    private final Scheduler scheduler;
+
+    ReactiveTreeSupport(Executor executor) {
+        this.scheduler = Schedulers.fromExecutor(executor);
+    }
+
+    /**
+     * 是否为 Mono 或 Flux
+     *
+     * @param value 方法返回值
+     * @return 是否支持
+     */
+    boolean supports(Object value) {
+        return value instanceof Mono || value instanceof Flux;
+    }
+
+    /**
+     * 在返回值上追加树构造
+     *
+     * @param value       方法返回值，Mono 或 Flux
+     * @param buildList   List 构造为树，返回 null 时不发出元素
+     * @param buildStream 从已接收全部节点的流式构造器取得根节点
+     * @return 构造后的 Mono 或 Flux
+     */
+    Object build(Object value, Function<Object, Object> buildList,
+                 Function<TreeBuilder<Object>, List<Object>> buildStream) {
+        if (value instanceof Mono) {
+            return ((Mono<?>) value).publishOn(scheduler)
+                    .flatMap(list -> Mono.justOrEmpty(buildList.apply(list)));
+        }
+        @SuppressWarnings("unchecked")
+        Flux<Object> nodes = (Flux<Object>) value;
+        return nodes.publishOn(scheduler)
+                .collect(TreeBuilder::<Object>create, TreeBuilder::accept)
+                .flatMapIterable(buildStream);
+    }
+
+    /**
+     * 构造完成后缓存结果，缓存的是只发出该结果的新 Mono 或 Flux，出错时不缓存
+     *
+     * @param value 构造后的 Mono 或 Flux
+     * @param store 写入缓存
+     * @return 写入缓存的 Mono 或 Flux
+     */
+    Object cache(Object value, Consumer<Object> store) {
+        if (value instanceof Mono) {
+            return ((Mono<?>) value).doOnNext(result -> store.accept(Mono.just(result)));
+        }
+        @SuppressWarnings("unchecked")
+        Flux<Object> roots = (Flux<Object>) value;
+        return roots.collectList()
+                .doOnNext(list -> store.accept(Flux.fromIterable(list)))
+                .flatMapIterable(Function.<List<Object>>identity());
+    }
+}
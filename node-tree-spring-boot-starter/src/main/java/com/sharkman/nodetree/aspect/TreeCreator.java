@@ -1,16 +1,29 @@
 package com.sharkman.nodetree.aspect;
 
+import com.sharkman.nodetree.annotation.TreeEngine;
+
 import java.util.List;
 
 /**
  * <p> Description:创建树接口</p>
+ * <p> 扩展点：声明实现本接口的 bean，替换 {@link #engine()} 对应的内置构造器，可在构造前后增加额外的行为。</p>
  * <p> CreationTime: 2021/9/4 13:41
  *
  * @author piwood
  * @version 1.0
  * @since 1.1.4
  */
-interface TreeCreator {
+public interface TreeCreator {
+    /**
+     * 构造器对应的构造方式，不能为 {@link TreeEngine#AUTO}
+     *
+     * @return 构造方式
+     * @since 2.1.0
+     */
+    default TreeEngine engine() {
+        return TreeEngine.SEQUENTIAL;
+    }
+
     /**
      * 构建树形结构，并返回根节点
      *
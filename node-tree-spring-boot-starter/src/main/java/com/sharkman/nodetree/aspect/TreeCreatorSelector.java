@@ -0,0 +1,79 @@
+package com.sharkman.nodetree.aspect;
+
+import com.sharkman.nodetree.annotation.NodeTree;
+import com.sharkman.nodetree.annotation.TreeEngine;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p> Description:树构造器选择</p>
+ * <p> 按方法上的 {@link NodeTree#engine()}、全局配置及节点数量选择构造方式，再取该构造方式的构造器。
+ * 自定义的 {@link TreeCreator} 替换同一构造方式的内置构造器。</p>
+ * <p> CreationTime: 2026/10/18 1:50 AM
+ *
+ * @author piwood
+ * @version 1.0
+ * @since 2.1.0
+ */
+public class TreeCreatorSelector {
+    private final NodeTreeProperties properties;
+    private final Map<TreeEngine, TreeCreator> creators = new EnumMap<>(TreeEngine.class);
+
+    public TreeCreatorSelector() {
+        this(new NodeTreeProperties(), Collections.emptyList());
+    }
+
+    /**
+     * @param properties 全局配置
+     * @param custom     自定义构造器，替换同一构造方式的内置构造器
+     */
+    public TreeCreatorSelector(NodeTreeProperties properties, Collection<TreeCreator> custom) {
+        this(properties, ForkJoinPool.commonPool(), custom);
+    }
+
+    /**
+     * @param properties 全局配置
+     * @param pool       并行构造的线程池
+     * @param custom     自定义构造器，替换同一构造方式的内置构造器
+     */
+    public TreeCreatorSelector(NodeTreeProperties properties, ForkJoinPool pool, Collection<TreeCreator> custom) {
+        this.properties = properties;
+        creators.put(TreeEngine.SEQUENTIAL, DefaultTreeCreator.getInstance());
+        creators.put(TreeEngine.PARALLEL, new ParallelTreeCreator(pool));
+        creators.put(TreeEngine.INDEX, IndexTreeCreator.getInstance());
+        for (TreeCreator creator : custom) {
+            if (null == creator.engine() || creator.engine() == TreeEngine.AUTO) {
+                throw new IllegalArgumentException("树构造器 " + creator.getClass().getName() + " 的构造方式不能为 AUTO！");
+            }
+            creators.put(creator.engine(), creator);
+        }
+    }
+
+    /**
+     * 选择构造器
+     *
+     * @param nodeTree 方法上的注解
+     * @param size     节点数量
+     * @return 构造器
+     */
+    TreeCreator select(NodeTree nodeTree, int size) {
+        TreeEngine engine = nodeTree.engine() == TreeEngine.AUTO ? properties.getEngine() : nodeTree.engine();
+        if (engine == TreeEngine.AUTO) {
+            int indexThreshold = nodeTree.indexThreshold() < 0 ? properties.getIndexThreshold() : nodeTree.indexThreshold();
+            int parallelThreshold = nodeTree.parallelThreshold() < 0
+                    ? properties.getParallelThreshold() : nodeTree.parallelThreshold();
+            if (indexThreshold > 0 && size >= indexThreshold) {
+                engine = TreeEngine.INDEX;
+            } else if (parallelThreshold > 0 && size >= parallelThreshold) {
+                engine = TreeEngine.PARALLEL;
+            } else {
+                engine = TreeEngine.SEQUENTIAL;
+            }
+        }
+        return creators.get(engine);
+    }
+}